@@ -0,0 +1,189 @@
+package com.example.binbuddy.data.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.binbuddy.data.database.AppDatabase;
+import com.example.binbuddy.data.entity.ProductEntity;
+import com.example.binbuddy.data.util.FtsQueryBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Full-text product search against an in-memory database: matches compared with the LIKE scan
+ * it replaced, ranking and paging.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ProductDaoSearchTest {
+
+    private static final int PRODUCT_COUNT = 10_000;
+
+    // Search query before products_fts existed
+    private static final String LIKE_QUERY = "SELECT * FROM products "
+            + "WHERE name LIKE '%' || ? || '%' OR brand LIKE '%' || ? || '%'";
+
+    private AppDatabase database;
+    private ProductDao productDao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        productDao = database.productDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void ftsSearchFindsWhatTheLikeScanFound() {
+        seedProducts();
+        String query = "nudel";
+
+        // Every 100th product is a "Nudeln" product
+        int expected = PRODUCT_COUNT / 100;
+        assertEquals(expected, countLike(query));
+        assertEquals(expected, productDao.searchProducts(FtsQueryBuilder.buildPrefixQuery(query),
+                query, PRODUCT_COUNT, 0).size());
+    }
+
+    @Test
+    public void resultsAreRankedByNamePrefixBrandPrefixHitsAndRecency() {
+        ProductEntity namePrefix = product("1", "Milch Vollmilch 3,5%", "Hof", 1_000L);
+        ProductEntity brandPrefix = product("2", "Frische Alpen", "Milchwerk", 2_000L);
+        ProductEntity manyHits = product("3", "Joghurt", "Hof", 3_000L);
+        manyHits.genericName = "Joghurt aus Milch";
+        manyHits.categories = Collections.singletonList("milch");
+        manyHits.labels = "milch";
+        ProductEntity newerSingleHit = product("4", "Käse", "Hof", 5_000L);
+        newerSingleHit.labels = "milch";
+        ProductEntity olderSingleHit = product("5", "Butter", "Hof", 4_000L);
+        olderSingleHit.labels = "milch";
+        ProductEntity noHit = product("6", "Brot", "Hof", 9_000L);
+        // Two hits at long byte offsets: a longer offsets() string than three hits at offset 0
+        ProductEntity twoFarHits = product("7", "Quark", "Hof", 8_000L);
+        twoFarHits.genericName = padding(100_000) + "Milch";
+        twoFarHits.labels = padding(100_000) + "milch";
+
+        List<ProductEntity> products = new ArrayList<>();
+        Collections.addAll(products, olderSingleHit, noHit, manyHits, newerSingleHit, brandPrefix,
+                namePrefix, twoFarHits);
+        productDao.upsertProducts(products);
+
+        assertEquals(barcodes("1", "2", "3", "7", "4", "5"), search("milch"));
+    }
+
+    @Test
+    public void likeWildcardsInQueryDoNotWidenThePrefixTier() {
+        ProductEntity containsTerm = product("1", "Frische Milch", "Hof", 1_000L);
+        ProductEntity newerLabelHit = product("2", "Käse", "Hof", 2_000L);
+        newerLabelHit.labels = "milch";
+        List<ProductEntity> products = new ArrayList<>();
+        Collections.addAll(products, containsTerm, newerLabelHit);
+        productDao.upsertProducts(products);
+
+        // Unescaped, "%milch" would put "Frische Milch" in the name prefix tier
+        assertEquals(barcodes("2", "1"), search("%milch"));
+    }
+
+    @Test
+    public void pagesAreDisjointAndFollowTheFullOrder() {
+        seedProducts();
+        String query = "produkt";
+        String matchQuery = FtsQueryBuilder.buildPrefixQuery(query);
+
+        List<ProductEntity> all = productDao.searchProducts(matchQuery, query, 40, 0);
+        List<ProductEntity> first = productDao.searchProducts(matchQuery, query, 20, 0);
+        List<ProductEntity> second = productDao.searchProducts(matchQuery, query, 20, 20);
+        assertEquals(40, all.size());
+        assertEquals(20, first.size());
+        assertEquals(20, second.size());
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(all.get(i).barcode, first.get(i).barcode);
+            assertEquals(all.get(20 + i).barcode, second.get(i).barcode);
+            assertTrue(seen.add(first.get(i).barcode));
+            assertTrue(seen.add(second.get(i).barcode));
+        }
+
+        // Past the last match
+        int matches = PRODUCT_COUNT - PRODUCT_COUNT / 100;
+        assertEquals(5, productDao.searchProducts(matchQuery, query, 20, matches - 5).size());
+        assertTrue(productDao.searchProducts(matchQuery, query, 20, matches).isEmpty());
+    }
+
+    private void seedProducts() {
+        List<ProductEntity> products = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            String name = (i % 100 == 0 ? "Nudeln " : "Produkt ") + i;
+            ProductEntity entity = product(String.format(Locale.US, "%013d", i), name,
+                    "Marke " + (i % 50), i);
+            entity.categories = Collections.singletonList("Kategorie " + (i % 20));
+            products.add(entity);
+        }
+        // One transaction for the whole batch
+        productDao.upsertProducts(products);
+    }
+
+    private int countLike(String query) {
+        SimpleSQLiteQuery likeQuery = new SimpleSQLiteQuery(LIKE_QUERY, new Object[]{query, query});
+        try (Cursor cursor = database.query(likeQuery)) {
+            return cursor.getCount();
+        }
+    }
+
+    private List<String> search(String query) {
+        List<ProductEntity> results = productDao.searchProducts(
+                FtsQueryBuilder.buildPrefixQuery(query),
+                FtsQueryBuilder.escapeLikePattern(query), 10, 0);
+        List<String> barcodes = new ArrayList<>(results.size());
+        for (ProductEntity result : results) {
+            barcodes.add(result.barcode);
+        }
+        return barcodes;
+    }
+
+    private static List<String> barcodes(String... barcodes) {
+        List<String> list = new ArrayList<>(barcodes.length);
+        Collections.addAll(list, barcodes);
+        return list;
+    }
+
+    private static String padding(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append("x ");
+        }
+        return builder.toString();
+    }
+
+    private static ProductEntity product(String barcode, String name, String brand, long updatedAt) {
+        ProductEntity entity = new ProductEntity();
+        entity.barcode = barcode;
+        entity.name = name;
+        entity.brand = brand;
+        entity.updatedAt = updatedAt;
+        return entity;
+    }
+}
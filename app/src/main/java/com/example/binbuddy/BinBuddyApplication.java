@@ -2,12 +2,45 @@ package com.example.binbuddy;
 
 import android.app.Application;
 
+import com.example.binbuddy.data.cache.ProductCache;
+import com.example.binbuddy.data.database.DatabaseMaintenanceJobService;
+import com.example.binbuddy.data.repository.ScanHistoryWriteBuffer;
+import com.example.binbuddy.domain.repository.ProductRepository;
+
+import javax.inject.Inject;
+
 import dagger.hilt.android.HiltAndroidApp;
 
 @HiltAndroidApp
 public class BinBuddyApplication extends Application {
+
+    @Inject
+    ProductCache productCache;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    ScanHistoryWriteBuffer scanHistoryWriteBuffer;
+
     @Override
     public void onCreate() {
         super.onCreate();
+        // Backfill or refresh stored waste categories after a rule set change
+        productRepository.reclassifyOutdatedProducts();
+        // Retention and compaction run while the device is idle and charging
+        DatabaseMaintenanceJobService.schedule(this);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (productCache != null) {
+            productCache.onTrimMemory(level);
+        }
+        if (scanHistoryWriteBuffer != null) {
+            // UI hidden: write pending scans before the process may be killed
+            scanHistoryWriteBuffer.onTrimMemory(level);
+        }
     }
 }
@@ -0,0 +1,129 @@
+package com.example.binbuddy.data.cache;
+
+import com.example.binbuddy.data.entity.ProductEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how a cached product row may be used, based on its age and where it came from.
+ *
+ * - FRESH: serve from cache, no network call
+ * - STALE: serve from cache and revalidate in the background
+ * - EXPIRED: treat as a cache miss and fetch again
+ */
+public class FreshnessPolicy {
+
+    public enum Freshness {
+        FRESH,
+        STALE,
+        EXPIRED
+    }
+
+    public static final long DEFAULT_LOOKUP_FRESH_MS = TimeUnit.DAYS.toMillis(1);
+    public static final long DEFAULT_LOOKUP_MAX_AGE_MS = TimeUnit.DAYS.toMillis(30);
+    public static final long DEFAULT_SEARCH_FRESH_MS = TimeUnit.HOURS.toMillis(6);
+    public static final long DEFAULT_SEARCH_MAX_AGE_MS = TimeUnit.DAYS.toMillis(7);
+
+    private final Map<String, Window> windows;
+    private final Window defaultWindow;
+
+    private FreshnessPolicy(Map<String, Window> windows, Window defaultWindow) {
+        this.windows = windows;
+        this.defaultWindow = defaultWindow;
+    }
+
+    /**
+     * Create the default policy: full product lookups stay fresh longer than search results.
+     */
+    public static FreshnessPolicy createDefault() {
+        return new Builder()
+                .setWindow(ProductEntity.SOURCE_LOOKUP, DEFAULT_LOOKUP_FRESH_MS, DEFAULT_LOOKUP_MAX_AGE_MS)
+                .setWindow(ProductEntity.SOURCE_SEARCH, DEFAULT_SEARCH_FRESH_MS, DEFAULT_SEARCH_MAX_AGE_MS)
+                .build();
+    }
+
+    /**
+     * Classify a cached row.
+     *
+     * @param source Source the row was ingested from (see ProductEntity.SOURCE_*), may be null
+     * @param updatedAt Time the row was last written, may be null
+     * @param now Current time in milliseconds
+     * @return Freshness of the row
+     */
+    public Freshness evaluate(String source, Long updatedAt, long now) {
+        if (updatedAt == null) {
+            return Freshness.EXPIRED;
+        }
+        Window window = source != null ? windows.get(source) : null;
+        if (window == null) {
+            window = defaultWindow;
+        }
+
+        long age = Math.max(0L, now - updatedAt);
+        if (age < window.freshForMs) {
+            return Freshness.FRESH;
+        }
+        if (age < window.maxAgeMs) {
+            return Freshness.STALE;
+        }
+        return Freshness.EXPIRED;
+    }
+
+    /**
+     * Convenience overload for a product row.
+     */
+    public Freshness evaluate(ProductEntity entity, long now) {
+        return evaluate(entity.source, entity.updatedAt, now);
+    }
+
+    private static final class Window {
+        final long freshForMs;
+        final long maxAgeMs;
+
+        Window(long freshForMs, long maxAgeMs) {
+            this.freshForMs = freshForMs;
+            this.maxAgeMs = maxAgeMs;
+        }
+    }
+
+    /**
+     * Builder pattern for easier construction
+     */
+    public static class Builder {
+        private final Map<String, Window> windows = new HashMap<>();
+        private Window defaultWindow = new Window(DEFAULT_SEARCH_FRESH_MS, DEFAULT_SEARCH_MAX_AGE_MS);
+
+        /**
+         * Set the freshness window for a source.
+         *
+         * @param source Source identifier (see ProductEntity.SOURCE_*)
+         * @param freshForMs Age below which a row is served without any network call
+         * @param maxAgeMs Age at or above which a row is treated as a miss
+         */
+        public Builder setWindow(String source, long freshForMs, long maxAgeMs) {
+            windows.put(source, createWindow(freshForMs, maxAgeMs));
+            return this;
+        }
+
+        /**
+         * Set the window used for rows with an unknown or missing source.
+         */
+        public Builder setDefaultWindow(long freshForMs, long maxAgeMs) {
+            this.defaultWindow = createWindow(freshForMs, maxAgeMs);
+            return this;
+        }
+
+        public FreshnessPolicy build() {
+            return new FreshnessPolicy(new HashMap<>(windows), defaultWindow);
+        }
+
+        private static Window createWindow(long freshForMs, long maxAgeMs) {
+            if (freshForMs < 0 || maxAgeMs < freshForMs) {
+                throw new IllegalArgumentException("Invalid freshness window");
+            }
+            return new Window(freshForMs, maxAgeMs);
+        }
+    }
+}
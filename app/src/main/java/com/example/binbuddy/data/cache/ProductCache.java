@@ -0,0 +1,305 @@
+package com.example.binbuddy.data.cache;
+
+import android.content.ComponentCallbacks2;
+
+import com.example.binbuddy.domain.model.EnvironmentInfo;
+import com.example.binbuddy.domain.model.Product;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory cache tier for products, keyed by barcode.
+ *
+ * Entries are evicted in least-recently-used order once either the entry budget or the
+ * (estimated) byte budget is exceeded. Every entry also carries a time-to-live; expired
+ * entries are dropped on access and count as misses.
+ *
+ * Hit/miss/eviction counters are kept so the budget can be tuned from real sessions.
+ */
+public class ProductCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 200;
+    public static final long DEFAULT_MAX_BYTES = 2L * 1024 * 1024;
+    public static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+
+    // Rough per-object overheads used by the size estimate (object header + fields)
+    private static final int PRODUCT_OVERHEAD_BYTES = 96;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+    private static final int LIST_OVERHEAD_BYTES = 32;
+    private static final int ENVIRONMENT_OVERHEAD_BYTES = 64;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMs;
+
+    // Access-ordered map: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long evictionCount;
+    private long expirationCount;
+
+    public ProductCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, DEFAULT_TTL_MS);
+    }
+
+    public ProductCache(int maxEntries, long maxBytes, long ttlMs) {
+        if (maxEntries <= 0 || maxBytes <= 0 || ttlMs <= 0) {
+            throw new IllegalArgumentException("Cache budget and TTL must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Get a cached product.
+     *
+     * @param barcode Product barcode
+     * @return Cached product, or null if absent or expired
+     */
+    public synchronized Product get(String barcode) {
+        if (barcode == null) {
+            return null;
+        }
+        Entry entry = entries.get(barcode);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            removeEntry(barcode, entry);
+            expirationCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.product;
+    }
+
+    /**
+     * Store a product, evicting least recently used entries if over budget.
+     *
+     * @param barcode Product barcode
+     * @param product Product to cache
+     */
+    public synchronized void put(String barcode, Product product) {
+        if (barcode == null || product == null) {
+            return;
+        }
+        long size = estimateSize(product);
+        if (size > maxBytes) {
+            // Never let a single oversized product flush the whole cache
+            remove(barcode);
+            return;
+        }
+
+        Entry previous = entries.put(barcode,
+                new Entry(product, size, System.currentTimeMillis() + ttlMs));
+        if (previous != null) {
+            currentBytes -= previous.sizeBytes;
+        }
+        currentBytes += size;
+        putCount++;
+        trimTo(maxEntries, maxBytes);
+    }
+
+    /**
+     * Remove a single product from the cache.
+     */
+    public synchronized void remove(String barcode) {
+        if (barcode == null) {
+            return;
+        }
+        Entry entry = entries.get(barcode);
+        if (entry != null) {
+            removeEntry(barcode, entry);
+        }
+    }
+
+    /**
+     * Remove all entries. Counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * React to memory pressure reported via {@link ComponentCallbacks2#onTrimMemory(int)}.
+     *
+     * @param level Trim level passed to onTrimMemory
+     */
+    public synchronized void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            // Process is likely to be killed soon - drop everything
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            trimTo(maxEntries / 2, maxBytes / 2);
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(entries.size(), currentBytes, hitCount, missCount, putCount,
+                evictionCount, expirationCount);
+    }
+
+    private void trimTo(int entryLimit, long byteLimit) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > entryLimit || currentBytes > byteLimit) && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            currentBytes -= eldest.getValue().sizeBytes;
+            evictionCount++;
+        }
+    }
+
+    private void removeEntry(String barcode, Entry entry) {
+        entries.remove(barcode);
+        currentBytes -= entry.sizeBytes;
+    }
+
+    /**
+     * Estimate the retained heap size of a product in bytes.
+     * This is an approximation (UTF-16 chars plus object overheads), good enough for budgeting.
+     */
+    static long estimateSize(Product product) {
+        long size = PRODUCT_OVERHEAD_BYTES;
+        size += sizeOf(product.getId());
+        size += sizeOf(product.getBarcode());
+        size += sizeOf(product.getName());
+        size += sizeOf(product.getBrand());
+        size += sizeOf(product.getPackaging());
+        size += sizeOf(product.getQuantity());
+        size += sizeOf(product.getLabels());
+        size += sizeOf(product.getGenericName());
+        size += sizeOf(product.getImageUrl());
+        size += sizeOf(product.getEcoscoreGrade());
+        size += sizeOf(product.getCategories());
+        size += sizeOf(product.getIngredients());
+
+        EnvironmentInfo info = product.getEnvironmentInfo();
+        if (info != null) {
+            size += ENVIRONMENT_OVERHEAD_BYTES;
+            size += sizeOf(info.getPackagingWarning());
+            size += sizeOf(info.getThreatenedSpeciesIngredient());
+            size += sizeOf(info.getPackagingMaterials());
+            size += sizeOf(info.getPackagingParts());
+        }
+        return size;
+    }
+
+    private static long sizeOf(String value) {
+        return value != null ? STRING_OVERHEAD_BYTES + 2L * value.length() : 0;
+    }
+
+    private static long sizeOf(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long size = LIST_OVERHEAD_BYTES + 4L * values.size();
+        for (String value : values) {
+            size += sizeOf(value);
+        }
+        return size;
+    }
+
+    private static final class Entry {
+        final Product product;
+        final long sizeBytes;
+        final long expiresAt;
+
+        Entry(Product product, long sizeBytes, long expiresAt) {
+            this.product = product;
+            this.sizeBytes = sizeBytes;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    /**
+     * Immutable snapshot of cache counters.
+     */
+    public static final class Stats {
+        private final int entryCount;
+        private final long sizeBytes;
+        private final long hitCount;
+        private final long missCount;
+        private final long putCount;
+        private final long evictionCount;
+        private final long expirationCount;
+
+        Stats(int entryCount, long sizeBytes, long hitCount, long missCount, long putCount,
+              long evictionCount, long expirationCount) {
+            this.entryCount = entryCount;
+            this.sizeBytes = sizeBytes;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.putCount = putCount;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+        }
+
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getPutCount() {
+            return putCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getExpirationCount() {
+            return expirationCount;
+        }
+
+        /**
+         * Hit rate between 0 and 1 (0 if there were no lookups yet).
+         */
+        public double getHitRate() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "ProductCache.Stats{entries=" + entryCount
+                    + ", bytes=" + sizeBytes
+                    + ", hits=" + hitCount
+                    + ", misses=" + missCount
+                    + ", puts=" + putCount
+                    + ", evictions=" + evictionCount
+                    + ", expirations=" + expirationCount + "}";
+        }
+    }
+}
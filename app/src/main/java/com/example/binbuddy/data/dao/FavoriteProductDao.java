@@ -7,6 +7,7 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
 import com.example.binbuddy.data.entity.FavoriteProductEntity;
+import com.example.binbuddy.data.entity.ProductEntity;
 
 import java.util.List;
 
@@ -15,6 +16,17 @@ public interface FavoriteProductDao {
     @Query("SELECT * FROM favorite_products ORDER BY timestamp DESC")
     List<FavoriteProductEntity> getFavorites();
 
+    @Query("SELECT product_id FROM favorite_products")
+    List<String> getFavoriteProductIds();
+
+    /**
+     * Favorite products, most recently added first, in one query.
+     */
+    @Query("SELECT products.* FROM favorite_products "
+        + "JOIN products ON products.id = favorite_products.product_id "
+        + "ORDER BY favorite_products.timestamp DESC")
+    List<ProductEntity> getFavoriteProducts();
+
     @Query("SELECT * FROM favorite_products WHERE product_id = :productId LIMIT 1")
     FavoriteProductEntity getFavoriteByProductId(String productId);
 
@@ -1,33 +1,142 @@
 package com.example.binbuddy.data.dao;
 
 import androidx.room.Dao;
-import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.example.binbuddy.data.entity.ProductEntity;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Dao
 public interface ProductDao {
     @Query("SELECT * FROM products WHERE barcode = :barcode LIMIT 1")
     ProductEntity getProduct(String barcode);
 
-    @Query("SELECT * FROM products WHERE name LIKE '%' || :query || '%' OR brand LIKE '%' || :query || '%'")
-    List<ProductEntity> searchProducts(String query);
+    /**
+     * Full-text search over name, brand, generic name, categories and labels.
+     * Results are ranked by name prefix, then brand prefix, then number of term hits, then recency.
+     * offsets() lists four integers per hit, so its space count orders rows by hit count.
+     *
+     * @param matchQuery FTS MATCH expression (see FtsQueryBuilder)
+     * @param prefix Normalized user query with LIKE wildcards escaped
+     *               (see FtsQueryBuilder.escapeLikePattern), used for prefix ranking
+     * @param limit Page size
+     * @param offset Number of rows to skip
+     */
+    @Query("SELECT products.* FROM products "
+            + "JOIN products_fts ON products.rowid = products_fts.docid "
+            + "WHERE products_fts MATCH :matchQuery "
+            + "ORDER BY CASE WHEN products.name LIKE :prefix || '%' ESCAPE '\\' THEN 0 "
+            + "WHEN products.brand LIKE :prefix || '%' ESCAPE '\\' THEN 1 ELSE 2 END, "
+            + "length(offsets(products_fts)) "
+            + "- length(replace(offsets(products_fts), ' ', '')) DESC, "
+            + "products.updated_at DESC "
+            + "LIMIT :limit OFFSET :offset")
+    List<ProductEntity> searchProducts(String matchQuery, String prefix, int limit, int offset);
 
     @Query("SELECT * FROM products WHERE waste_category_id = :categoryId")
     List<ProductEntity> getProductsByWasteCategory(String categoryId);
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
-    void insertProduct(ProductEntity product);
+    /**
+     * Insert or update in place. Unlike REPLACE this keeps the rowid stable and fires the
+     * update triggers that keep products_fts in sync.
+     */
+    @Upsert
+    void upsertProduct(ProductEntity product);
+
+    /**
+     * Insert or update a batch of rows. Room runs the whole list in a single transaction,
+     * so a search page costs one commit instead of one per product.
+     */
+    @Upsert
+    void upsertProducts(List<ProductEntity> products);
+
+    @Query("SELECT * FROM products WHERE barcode IN (:barcodes)")
+    List<ProductEntity> getProductsByBarcodes(List<String> barcodes);
+
+    /**
+     * Upsert a page of search results in one transaction without downgrading rows that are
+     * already cached: an existing row keeps its id, created_at and a lookup source, so its
+     * freshness window is not shortened to the search window.
+     */
+    @Transaction
+    default void upsertSearchResults(List<ProductEntity> products) {
+        List<String> barcodes = new ArrayList<>(products.size());
+        for (ProductEntity product : products) {
+            if (product.barcode != null) {
+                barcodes.add(product.barcode);
+            }
+        }
+        Map<String, ProductEntity> existingByBarcode = new HashMap<>();
+        if (!barcodes.isEmpty()) {
+            for (ProductEntity existing : getProductsByBarcodes(barcodes)) {
+                existingByBarcode.put(existing.barcode, existing);
+            }
+        }
+        for (ProductEntity product : products) {
+            ProductEntity existing = product.barcode != null ? existingByBarcode.get(product.barcode) : null;
+            if (existing != null) {
+                product.id = existing.id;
+                product.createdAt = existing.createdAt;
+                if (ProductEntity.SOURCE_LOOKUP.equals(existing.source)) {
+                    product.source = existing.source;
+                }
+            }
+        }
+        upsertProducts(products);
+    }
 
     @Update
     void updateProduct(ProductEntity product);
 
+    @Query("UPDATE products SET waste_category_id = :categoryId, classification_version = :rulesVersion "
+            + "WHERE id = :productId")
+    void updateWasteCategory(String productId, String categoryId, int rulesVersion);
+
+    /**
+     * Write classification results for many products in a single transaction.
+     *
+     * @param categoryIdsByProductId Waste category id per product id
+     * @param rulesVersion Rule set version that produced the categories
+     */
+    @Transaction
+    default void updateWasteCategories(Map<String, String> categoryIdsByProductId, int rulesVersion) {
+        for (Map.Entry<String, String> entry : categoryIdsByProductId.entrySet()) {
+            updateWasteCategory(entry.getKey(), entry.getValue(), rulesVersion);
+        }
+    }
+
+    /**
+     * Rows that were never classified or were classified by another rule set version.
+     */
+    @Query("SELECT * FROM products WHERE waste_category_id IS NULL "
+            + "OR classification_version IS NULL OR classification_version != :rulesVersion "
+            + "LIMIT :limit")
+    List<ProductEntity> getOutdatedClassifications(int rulesVersion, int limit);
+
     @Query("SELECT * FROM products ORDER BY updated_at DESC LIMIT :limit")
     List<ProductEntity> getRecentProducts(int limit);
+
+    @Query("SELECT COUNT(*) FROM products")
+    int getProductCount();
+
+    /**
+     * Delete least recently updated products that are neither favorites nor in the scan history.
+     *
+     * @param updatedBefore Only rows updated before this time are candidates
+     * @param limit Maximum number of rows to delete (-1 for no limit)
+     * @return Number of deleted rows
+     */
+    @Query("DELETE FROM products WHERE id IN (SELECT p.id FROM products p "
+            + "WHERE COALESCE(p.updated_at, 0) < :updatedBefore "
+            + "AND NOT EXISTS (SELECT 1 FROM favorite_products f WHERE f.product_id = p.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM scan_history s WHERE s.barcode = p.barcode) "
+            + "ORDER BY COALESCE(p.updated_at, 0) ASC LIMIT :limit)")
+    int deleteUnreferencedProducts(long updatedBefore, int limit);
 }
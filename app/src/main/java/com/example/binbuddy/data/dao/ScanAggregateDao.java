@@ -0,0 +1,45 @@
+package com.example.binbuddy.data.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.binbuddy.data.entity.ScanDailyAggregateEntity;
+
+import java.util.List;
+
+@Dao
+public interface ScanAggregateDao {
+    @Query("SELECT * FROM scan_daily_aggregates WHERE day >= :fromDay ORDER BY day DESC, scan_count DESC")
+    List<ScanDailyAggregateEntity> getAggregatesSince(String fromDay);
+
+    /**
+     * Add the scans before :cutoff to the per-day counts (days in local time).
+     * Counts already rolled up for the same day and barcode are kept and added to.
+     */
+    @Query("INSERT OR REPLACE INTO scan_daily_aggregates (day, barcode, scan_count, last_scanned_at) "
+        + "SELECT g.day, g.barcode, g.scan_count + COALESCE(a.scan_count, 0), "
+        + "MAX(g.last_scanned_at, COALESCE(a.last_scanned_at, 0)) "
+        + "FROM (SELECT date(timestamp / 1000, 'unixepoch', 'localtime') AS day, barcode, "
+        + "COUNT(*) AS scan_count, MAX(timestamp) AS last_scanned_at FROM scan_history "
+        + "WHERE timestamp < :cutoff AND barcode IS NOT NULL GROUP BY day, barcode) g "
+        + "LEFT JOIN scan_daily_aggregates a ON a.day = g.day AND a.barcode = g.barcode")
+    void aggregateScansBefore(long cutoff);
+
+    @Query("DELETE FROM scan_history WHERE timestamp < :cutoff")
+    int deleteScansBefore(long cutoff);
+
+    /**
+     * Roll the scans before :cutoff up into daily aggregates and delete them, atomically.
+     *
+     * @return Number of scans rolled up
+     */
+    @Transaction
+    default int rollUpScansBefore(long cutoff) {
+        aggregateScansBefore(cutoff);
+        return deleteScansBefore(cutoff);
+    }
+
+    @Query("DELETE FROM scan_daily_aggregates WHERE day < :day")
+    int deleteAggregatesBefore(String day);
+}
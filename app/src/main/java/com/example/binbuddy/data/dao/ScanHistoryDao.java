@@ -5,22 +5,45 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 
 import com.example.binbuddy.data.entity.ScanHistoryEntity;
+import com.example.binbuddy.data.entity.ScanHistoryWithProduct;
 
 import java.util.List;
 
 @Dao
 public interface ScanHistoryDao {
-    @Query("SELECT * FROM scan_history ORDER BY timestamp DESC")
-    List<ScanHistoryEntity> getScanHistory();
-
     @Query("SELECT * FROM scan_history ORDER BY timestamp DESC LIMIT :limit")
     List<ScanHistoryEntity> getRecentScans(int limit);
 
+    /**
+     * First page of the history, newest first, with products.
+     * Walks the timestamp index (which also orders by id) and stops after :limit rows.
+     */
+    @Transaction
+    @Query("SELECT * FROM scan_history ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<ScanHistoryWithProduct> getScanHistoryPage(int limit);
+
+    /**
+     * Keyset page: the :limit scans following the (timestamp, id) of the last row already loaded.
+     * Unlike OFFSET this costs the same for every page, however deep the user scrolls.
+     */
+    @Transaction
+    @Query("SELECT * FROM scan_history "
+        + "WHERE timestamp <= :beforeTimestamp AND (timestamp < :beforeTimestamp OR id < :beforeId) "
+        + "ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<ScanHistoryWithProduct> getScanHistoryPageBefore(long beforeTimestamp, long beforeId, int limit);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void saveScan(ScanHistoryEntity scan);
 
+    /**
+     * Insert a batch of scans in one transaction (see ScanHistoryWriteBuffer).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void saveScans(List<ScanHistoryEntity> scans);
+
     @Delete
     void deleteScan(ScanHistoryEntity scan);
 
@@ -6,24 +6,32 @@ import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.example.binbuddy.data.cache.FreshnessPolicy;
 import com.example.binbuddy.data.dao.FavoriteProductDao;
 import com.example.binbuddy.data.dao.ProductDao;
+import com.example.binbuddy.data.dao.ScanAggregateDao;
 import com.example.binbuddy.data.dao.ScanHistoryDao;
 import com.example.binbuddy.data.dao.WasteCategoryDao;
 import com.example.binbuddy.data.entity.FavoriteProductEntity;
 import com.example.binbuddy.data.entity.ProductEntity;
+import com.example.binbuddy.data.entity.ProductFtsEntity;
+import com.example.binbuddy.data.entity.ScanDailyAggregateEntity;
 import com.example.binbuddy.data.entity.ScanHistoryEntity;
 import com.example.binbuddy.data.entity.WasteCategoryEntity;
 
 @Database(
     entities = {
         ProductEntity.class,
+        ProductFtsEntity.class,
         ScanHistoryEntity.class,
         WasteCategoryEntity.class,
-        FavoriteProductEntity.class
+        FavoriteProductEntity.class,
+        ScanDailyAggregateEntity.class
     },
-    version = 1,
+    version = 6,
     exportSchema = false
 )
 @TypeConverters({Converters.class})
@@ -32,9 +40,104 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract ScanHistoryDao scanHistoryDao();
     public abstract WasteCategoryDao wasteCategoryDao();
     public abstract FavoriteProductDao favoriteProductDao();
+    public abstract ScanAggregateDao scanAggregateDao();
 
     private static volatile AppDatabase INSTANCE;
 
+    /**
+     * v2: products.source records where a cached row came from (used for freshness windows).
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE products ADD COLUMN source TEXT");
+        }
+    };
+
+    /**
+     * v3: products_fts full-text index (external content) plus the sync triggers Room generates for it.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `products_fts` USING FTS4("
+                + "`name` TEXT, `brand` TEXT, `generic_name` TEXT, `categories` TEXT, `labels` TEXT, "
+                + "tokenize=unicode61, content=`products`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_products_fts_BEFORE_UPDATE "
+                + "BEFORE UPDATE ON `products` BEGIN DELETE FROM `products_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_products_fts_BEFORE_DELETE "
+                + "BEFORE DELETE ON `products` BEGIN DELETE FROM `products_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_products_fts_AFTER_UPDATE "
+                + "AFTER UPDATE ON `products` BEGIN INSERT INTO `products_fts`("
+                + "`docid`, `name`, `brand`, `generic_name`, `categories`, `labels`) VALUES ("
+                + "NEW.`rowid`, NEW.`name`, NEW.`brand`, NEW.`generic_name`, NEW.`categories`, NEW.`labels`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_products_fts_AFTER_INSERT "
+                + "AFTER INSERT ON `products` BEGIN INSERT INTO `products_fts`("
+                + "`docid`, `name`, `brand`, `generic_name`, `categories`, `labels`) VALUES ("
+                + "NEW.`rowid`, NEW.`name`, NEW.`brand`, NEW.`generic_name`, NEW.`categories`, NEW.`labels`); END");
+            // Index the rows that already exist
+            db.execSQL("INSERT INTO `products_fts`(`products_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    /**
+     * v4: eco-score and packaging columns so the detail screen can be served from the cache.
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE products ADD COLUMN ecoscore_grade TEXT");
+            db.execSQL("ALTER TABLE products ADD COLUMN ecoscore_score INTEGER");
+            db.execSQL("ALTER TABLE products ADD COLUMN co2_per_100g REAL");
+            db.execSQL("ALTER TABLE products ADD COLUMN packaging_warning TEXT");
+            db.execSQL("ALTER TABLE products ADD COLUMN packaging_materials TEXT");
+            db.execSQL("ALTER TABLE products ADD COLUMN packaging_parts TEXT");
+            db.execSQL("ALTER TABLE products ADD COLUMN contains_palm_oil INTEGER");
+            db.execSQL("ALTER TABLE products ADD COLUMN threatened_species_ingredient TEXT");
+            // Existing rows have no eco data yet: make them at most stale (not expired), so they are
+            // still shown right away and revalidated in the background on their next lookup
+            db.execSQL("UPDATE products SET updated_at = MIN(updated_at, "
+                + "CAST(strftime('%s', 'now') AS INTEGER) * 1000 - "
+                + FreshnessPolicy.DEFAULT_LOOKUP_FRESH_MS + ") "
+                + "WHERE ecoscore_grade IS NULL AND updated_at IS NOT NULL");
+        }
+    };
+
+    /**
+     * v5: classification_version stamp for stored waste categories, and an index for category queries.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE products ADD COLUMN classification_version INTEGER");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_products_waste_category_id` "
+                + "ON `products` (`waste_category_id`)");
+        }
+    };
+
+    /**
+     * v6: daily scan aggregates for rolled-up history, and a barcode index on scan_history for the
+     * product relation and the product retention check.
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `scan_daily_aggregates` ("
+                + "`day` TEXT NOT NULL, `barcode` TEXT NOT NULL, `scan_count` INTEGER NOT NULL, "
+                + "`last_scanned_at` INTEGER NOT NULL, PRIMARY KEY(`day`, `barcode`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_scan_history_barcode` "
+                + "ON `scan_history` (`barcode`)");
+        }
+    };
+
+    public static final Migration[] MIGRATIONS = {
+        MIGRATION_1_2,
+        MIGRATION_2_3,
+        MIGRATION_3_4,
+        MIGRATION_4_5,
+        MIGRATION_5_6
+    };
+
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
@@ -45,6 +148,7 @@ public abstract class AppDatabase extends RoomDatabase {
                         "binbuddy_database"
                     )
                     .addCallback(new DatabaseInitializer())
+                    .addMigrations(MIGRATIONS)
                     .build();
                 }
             }
@@ -6,26 +6,130 @@ import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Room type converters.
+ *
+ * List<String> columns are stored as a header character followed by the items separated by
+ * a unit separator; separator and escape characters inside items are escaped with a backslash.
+ * Encoding and decoding are a single pass with no reflection. Rows written by older versions
+ * as JSON arrays are still read (via Gson) until they are rewritten.
+ */
 public class Converters {
-    private static final Gson gson = new Gson();
+
+    // Control characters: never part of product text, and treated as token separators by FTS
+    static final char LIST_HEADER = '\u001E';
+    static final char LIST_SEPARATOR = '\u001F';
+    static final char LIST_ESCAPE = '\\';
+
+    private static final Type LEGACY_LIST_TYPE = new TypeToken<List<String>>() {}.getType();
+    private static Gson legacyGson;
 
     @TypeConverter
     public static List<String> fromString(String value) {
         if (value == null || value.isEmpty()) {
             return Collections.emptyList();
         }
-        Type listType = new TypeToken<List<String>>() {}.getType();
-        return gson.fromJson(value, listType);
+        char first = value.charAt(0);
+        if (first == LIST_HEADER) {
+            return decodeList(value);
+        }
+        if (first == '[') {
+            return decodeLegacyJson(value);
+        }
+        // Unknown format: keep the raw value rather than dropping data
+        List<String> single = new ArrayList<>(1);
+        single.add(value);
+        return single;
     }
 
     @TypeConverter
     public static String fromList(List<String> list) {
         if (list == null || list.isEmpty()) {
-            return "[]";
+            return "";
+        }
+
+        int capacity = 1 + list.size();
+        for (int i = 0; i < list.size(); i++) {
+            String item = list.get(i);
+            capacity += item != null ? item.length() : 0;
+        }
+
+        StringBuilder builder = new StringBuilder(capacity);
+        builder.append(LIST_HEADER);
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                builder.append(LIST_SEPARATOR);
+            }
+            String item = list.get(i);
+            if (item == null) {
+                continue;
+            }
+            if (item.indexOf(LIST_SEPARATOR) < 0 && item.indexOf(LIST_ESCAPE) < 0) {
+                builder.append(item);
+            } else {
+                appendEscaped(builder, item);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static List<String> decodeList(String value) {
+        List<String> result = new ArrayList<>();
+        if (value.indexOf(LIST_ESCAPE) < 0) {
+            // Fast path: nothing escaped, items are plain substrings
+            int start = 1;
+            int separator;
+            while ((separator = value.indexOf(LIST_SEPARATOR, start)) >= 0) {
+                result.add(value.substring(start, separator));
+                start = separator + 1;
+            }
+            result.add(value.substring(start));
+            return result;
+        }
+
+        StringBuilder item = new StringBuilder();
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == LIST_ESCAPE && i + 1 < value.length()) {
+                item.append(value.charAt(++i));
+            } else if (c == LIST_SEPARATOR) {
+                result.add(item.toString());
+                item.setLength(0);
+            } else {
+                item.append(c);
+            }
+        }
+        result.add(item.toString());
+        return result;
+    }
+
+    private static void appendEscaped(StringBuilder builder, String item) {
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (c == LIST_SEPARATOR || c == LIST_ESCAPE) {
+                builder.append(LIST_ESCAPE);
+            }
+            builder.append(c);
+        }
+    }
+
+    private static List<String> decodeLegacyJson(String value) {
+        if ("[]".equals(value)) {
+            return Collections.emptyList();
+        }
+        List<String> list = getLegacyGson().fromJson(value, LEGACY_LIST_TYPE);
+        return list != null ? list : Collections.emptyList();
+    }
+
+    private static synchronized Gson getLegacyGson() {
+        // Only needed for rows written before the delimited format
+        if (legacyGson == null) {
+            legacyGson = new Gson();
         }
-        return gson.toJson(list);
+        return legacyGson;
     }
 }
@@ -0,0 +1,215 @@
+package com.example.binbuddy.data.database;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.binbuddy.data.dao.ProductDao;
+import com.example.binbuddy.data.dao.ScanAggregateDao;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Retention and compaction for the local database, run by DatabaseMaintenanceJobService.
+ *
+ * In order:
+ * 1. Scans older than the scan retention are rolled up into scan_daily_aggregates and deleted
+ * 2. Aggregates older than the aggregate retention are deleted
+ * 3. Products that are neither favorites nor in the scan history are evicted in least recently
+ *    updated order: all that are older than the product retention, then as many as needed to
+ *    get under the product budget
+ * 4. ANALYZE refreshes the query planner statistics; VACUUM runs when enough pages are free
+ *
+ * Steps check the stop signal in between, so a stopped job leaves a consistent database.
+ */
+public class DatabaseMaintenance {
+
+    private static final String TAG = "DatabaseMaintenance";
+
+    private final AppDatabase database;
+    private final ScanAggregateDao scanAggregateDao;
+    private final ProductDao productDao;
+    private final Policy policy;
+
+    public DatabaseMaintenance(AppDatabase database, Policy policy) {
+        this.database = database;
+        this.scanAggregateDao = database.scanAggregateDao();
+        this.productDao = database.productDao();
+        this.policy = policy;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Run all maintenance steps. Blocks; call from a background thread.
+     *
+     * @param stopRequested Polled between steps; returning true skips the remaining steps
+     * @return true if all steps ran
+     */
+    public boolean run(BooleanSupplier stopRequested) {
+        long now = System.currentTimeMillis();
+
+        // Align to local midnight so every day is rolled up in one piece
+        long scanCutoff = startOfDay(now - policy.scanRetentionMs);
+        int rolledUp = scanAggregateDao.rollUpScansBefore(scanCutoff);
+        if (stopRequested.getAsBoolean()) {
+            return false;
+        }
+
+        String aggregateCutoff = formatDay(now - policy.aggregateRetentionMs);
+        int expiredAggregates = scanAggregateDao.deleteAggregatesBefore(aggregateCutoff);
+        if (stopRequested.getAsBoolean()) {
+            return false;
+        }
+
+        int evicted = productDao.deleteUnreferencedProducts(now - policy.productRetentionMs, -1);
+        int excess = productDao.getProductCount() - policy.maxProducts;
+        if (excess > 0) {
+            evicted += productDao.deleteUnreferencedProducts(Long.MAX_VALUE, excess);
+        }
+        if (stopRequested.getAsBoolean()) {
+            return false;
+        }
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        db.execSQL("ANALYZE");
+        boolean vacuumed = false;
+        if (stopRequested.getAsBoolean()) {
+            return false;
+        }
+        if (freePageRatio(db) >= policy.vacuumFreePageRatio) {
+            db.execSQL("VACUUM");
+            vacuumed = true;
+        }
+
+        Log.d(TAG, "Rolled up " + rolledUp + " scans, deleted " + expiredAggregates
+                + " aggregates, evicted " + evicted + " products, vacuumed: " + vacuumed);
+        return true;
+    }
+
+    private static double freePageRatio(SupportSQLiteDatabase db) {
+        long pageCount = queryLong(db, "PRAGMA page_count");
+        if (pageCount <= 0) {
+            return 0d;
+        }
+        return (double) queryLong(db, "PRAGMA freelist_count") / pageCount;
+    }
+
+    private static long queryLong(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        }
+    }
+
+    private static long startOfDay(long timeMs) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timeMs);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Local day in the format SQLite's date() produces for scan_daily_aggregates.day.
+     */
+    private static String formatDay(long timeMs) {
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(timeMs);
+    }
+
+    /**
+     * Retention limits per table.
+     */
+    public static class Policy {
+        private final long scanRetentionMs;
+        private final long aggregateRetentionMs;
+        private final long productRetentionMs;
+        private final int maxProducts;
+        private final double vacuumFreePageRatio;
+
+        private Policy(Builder builder) {
+            this.scanRetentionMs = builder.scanRetentionMs;
+            this.aggregateRetentionMs = builder.aggregateRetentionMs;
+            this.productRetentionMs = builder.productRetentionMs;
+            this.maxProducts = builder.maxProducts;
+            this.vacuumFreePageRatio = builder.vacuumFreePageRatio;
+        }
+
+        /**
+         * 90 days of individual scans, 2 years of daily aggregates, products unused for 60 days
+         * or beyond 2000 rows, VACUUM once 10% of the pages are free.
+         */
+        public static Policy createDefault() {
+            return new Builder().build();
+        }
+
+        public long getScanRetentionMs() {
+            return scanRetentionMs;
+        }
+
+        public long getAggregateRetentionMs() {
+            return aggregateRetentionMs;
+        }
+
+        public long getProductRetentionMs() {
+            return productRetentionMs;
+        }
+
+        public int getMaxProducts() {
+            return maxProducts;
+        }
+
+        public double getVacuumFreePageRatio() {
+            return vacuumFreePageRatio;
+        }
+
+        public static class Builder {
+            private long scanRetentionMs = TimeUnit.DAYS.toMillis(90);
+            private long aggregateRetentionMs = TimeUnit.DAYS.toMillis(730);
+            private long productRetentionMs = TimeUnit.DAYS.toMillis(60);
+            private int maxProducts = 2000;
+            private double vacuumFreePageRatio = 0.1d;
+
+            public Builder setScanRetentionMs(long scanRetentionMs) {
+                this.scanRetentionMs = scanRetentionMs;
+                return this;
+            }
+
+            public Builder setAggregateRetentionMs(long aggregateRetentionMs) {
+                this.aggregateRetentionMs = aggregateRetentionMs;
+                return this;
+            }
+
+            public Builder setProductRetentionMs(long productRetentionMs) {
+                this.productRetentionMs = productRetentionMs;
+                return this;
+            }
+
+            public Builder setMaxProducts(int maxProducts) {
+                this.maxProducts = maxProducts;
+                return this;
+            }
+
+            public Builder setVacuumFreePageRatio(double vacuumFreePageRatio) {
+                this.vacuumFreePageRatio = vacuumFreePageRatio;
+                return this;
+            }
+
+            public Policy build() {
+                if (scanRetentionMs <= 0 || aggregateRetentionMs < scanRetentionMs
+                        || productRetentionMs <= 0 || maxProducts <= 0) {
+                    throw new IllegalArgumentException("Invalid retention policy");
+                }
+                return new Policy(this);
+            }
+        }
+    }
+}
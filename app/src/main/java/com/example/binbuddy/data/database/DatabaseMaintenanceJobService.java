@@ -0,0 +1,85 @@
+package com.example.binbuddy.data.database;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.AndroidEntryPoint;
+
+/**
+ * Runs DatabaseMaintenance about once a day while the device is idle and charging.
+ */
+@AndroidEntryPoint
+public class DatabaseMaintenanceJobService extends JobService {
+
+    private static final String TAG = "DatabaseMaintenanceJob";
+    private static final int JOB_ID = 1001;
+    private static final long INTERVAL_MS = TimeUnit.DAYS.toMillis(1);
+
+    @Inject
+    DatabaseMaintenance databaseMaintenance;
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private volatile boolean stopped;
+
+    /**
+     * Schedule the periodic maintenance job unless it is already scheduled.
+     */
+    public static void schedule(Context context) {
+        JobScheduler jobScheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (jobScheduler == null || jobScheduler.getPendingJob(JOB_ID) != null) {
+            return;
+        }
+        JobInfo jobInfo = new JobInfo.Builder(JOB_ID,
+                new ComponentName(context, DatabaseMaintenanceJobService.class))
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .setPeriodic(INTERVAL_MS)
+                .build();
+        if (jobScheduler.schedule(jobInfo) != JobScheduler.RESULT_SUCCESS) {
+            Log.w(TAG, "Could not schedule database maintenance");
+        }
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        stopped = false;
+        executorService.execute(() -> {
+            boolean completed = false;
+            try {
+                completed = databaseMaintenance.run(() -> stopped);
+            } catch (Exception e) {
+                Log.e(TAG, "Database maintenance failed", e);
+                completed = true;
+            }
+            if (completed) {
+                // Periodic job: the next run is scheduled by the system
+                jobFinished(params, false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Idle or charging ended; retry the remaining steps later
+        stopped = true;
+        return true;
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        executorService.shutdown();
+    }
+}
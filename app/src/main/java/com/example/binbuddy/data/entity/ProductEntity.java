@@ -11,9 +11,17 @@ import java.util.UUID;
 
 @Entity(
     tableName = "products",
-    indices = {@Index(value = {"barcode"}, unique = true)}
+    indices = {
+        @Index(value = {"barcode"}, unique = true),
+        @Index(value = {"waste_category_id"})
+    }
 )
 public class ProductEntity {
+    /** Row was written from a full barcode lookup */
+    public static final String SOURCE_LOOKUP = "lookup";
+    /** Row was written from a search result page */
+    public static final String SOURCE_SEARCH = "search";
+
     @PrimaryKey
     @NonNull
     @ColumnInfo(name = "id")
@@ -40,6 +48,10 @@ public class ProductEntity {
     @ColumnInfo(name = "waste_category_id")
     public String wasteCategoryId;
 
+    /** ClassificationRules.RULES_VERSION that produced waste_category_id */
+    @ColumnInfo(name = "classification_version")
+    public Integer classificationVersion;
+
     @ColumnInfo(name = "image_url")
     public String imageUrl;
 
@@ -58,6 +70,33 @@ public class ProductEntity {
     @ColumnInfo(name = "updated_at")
     public Long updatedAt;
 
+    @ColumnInfo(name = "source")
+    public String source;
+
+    @ColumnInfo(name = "ecoscore_grade")
+    public String ecoscoreGrade;
+
+    @ColumnInfo(name = "ecoscore_score")
+    public Integer ecoscoreScore;
+
+    @ColumnInfo(name = "co2_per_100g")
+    public Double co2Per100g;
+
+    @ColumnInfo(name = "packaging_warning")
+    public String packagingWarning;
+
+    @ColumnInfo(name = "packaging_materials")
+    public List<String> packagingMaterials;
+
+    @ColumnInfo(name = "packaging_parts")
+    public List<String> packagingParts;
+
+    @ColumnInfo(name = "contains_palm_oil")
+    public Boolean containsPalmOil;
+
+    @ColumnInfo(name = "threatened_species_ingredient")
+    public String threatenedSpeciesIngredient;
+
     public ProductEntity() {
         this.id = UUID.randomUUID().toString();
         this.createdAt = System.currentTimeMillis();
@@ -0,0 +1,30 @@
+package com.example.binbuddy.data.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the searchable columns of {@link ProductEntity}.
+ * External-content FTS4 table: Room keeps it in sync with the products table via triggers,
+ * so only the index is stored here (rows join back to products on rowid = docid).
+ */
+@Fts4(contentEntity = ProductEntity.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "products_fts")
+public class ProductFtsEntity {
+    @ColumnInfo(name = "name")
+    public String name;
+
+    @ColumnInfo(name = "brand")
+    public String brand;
+
+    @ColumnInfo(name = "generic_name")
+    public String genericName;
+
+    @ColumnInfo(name = "categories")
+    public String categories;
+
+    @ColumnInfo(name = "labels")
+    public String labels;
+}
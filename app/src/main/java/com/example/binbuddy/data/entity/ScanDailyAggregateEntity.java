@@ -0,0 +1,30 @@
+package com.example.binbuddy.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Number of scans of one barcode on one day, kept after the individual scans have been
+ * rolled up and deleted by the database maintenance job.
+ */
+@Entity(
+    tableName = "scan_daily_aggregates",
+    primaryKeys = {"day", "barcode"}
+)
+public class ScanDailyAggregateEntity {
+    /** Local calendar day, yyyy-MM-dd */
+    @NonNull
+    @ColumnInfo(name = "day")
+    public String day = "";
+
+    @NonNull
+    @ColumnInfo(name = "barcode")
+    public String barcode = "";
+
+    @ColumnInfo(name = "scan_count")
+    public int scanCount;
+
+    @ColumnInfo(name = "last_scanned_at")
+    public long lastScannedAt;
+}
@@ -16,7 +16,11 @@ import androidx.room.PrimaryKey;
             onDelete = ForeignKey.SET_NULL
         )
     },
-    indices = {@Index(value = {"product_id"}), @Index(value = {"timestamp"})}
+    indices = {
+        @Index(value = {"product_id"}),
+        @Index(value = {"timestamp"}),
+        @Index(value = {"barcode"})
+    }
 )
 public class ScanHistoryEntity {
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,19 @@
+package com.example.binbuddy.data.entity;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+
+/**
+ * Scan history row together with its cached product.
+ *
+ * The product is related by barcode (unique index on products.barcode), so scans recorded before
+ * the product was cached still pick it up later. Room loads the products of a whole page with one
+ * IN query instead of one lookup per scan.
+ */
+public class ScanHistoryWithProduct {
+    @Embedded
+    public ScanHistoryEntity scan;
+
+    @Relation(parentColumn = "barcode", entityColumn = "barcode")
+    public ProductEntity product;
+}
@@ -1,17 +1,21 @@
 package com.example.binbuddy.data.mapper;
 
+import com.example.binbuddy.data.entity.ProductEntity;
+import com.example.binbuddy.data.remote.model.EcoscoreDataDto;
 import com.example.binbuddy.data.remote.model.IngredientDto;
+import com.example.binbuddy.data.remote.model.PackagingDto;
 import com.example.binbuddy.data.remote.model.ProductDto;
+import com.example.binbuddy.domain.model.EnvironmentInfo;
 import com.example.binbuddy.domain.model.Product;
 import com.example.binbuddy.domain.model.WasteCategory;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Mapper class to convert between Product DTOs/Entities and Domain models.
- * This will be fully implemented once ProductDto and ProductEntity are created.
  */
 public class ProductMapper {
 
@@ -33,7 +37,7 @@ public class ProductMapper {
         product.setBarcode(dto.getBarcode());
         product.setName(dto.getProductName());
         product.setBrand(dto.getBrands());
-        product.setPackaging(dto.getPackaging());
+        product.setPackaging(resolvePackaging(dto));
         product.setQuantity(dto.getQuantity());
         product.setLabels(dto.getLabels());
         product.setGenericName(dto.getGenericName());
@@ -58,37 +62,216 @@ public class ProductMapper {
             product.setId(dto.getBarcode());
         }
         
-        // Note: ecoscoreGrade and ecoscoreScore are not in ProductDto,
-        // so they will remain null unless set elsewhere
+        product.setEcoscoreGrade(dto.getEcoscoreGrade());
+        product.setEcoscoreScore(dto.getEcoscoreScore());
+        product.setEnvironmentInfo(toEnvironmentInfo(dto));
         
         return product;
     }
 
     /**
      * Convert ProductEntity to Product domain model.
-     * This method will be implemented once ProductEntity is created.
      * 
      * @param entity ProductEntity from database
      * @param wasteCategory WasteCategory for the product (can be null)
      * @return Product domain model
      */
-    public Product toDomainFromEntity(Object entity, WasteCategory wasteCategory) {
-        // TODO: Implement once ProductEntity is created
-        // This is a placeholder that will be replaced with actual mapping logic
-        throw new UnsupportedOperationException("ProductEntity mapping not yet implemented");
+    public Product toDomainFromEntity(ProductEntity entity, WasteCategory wasteCategory) {
+        if (entity == null) {
+            return null;
+        }
+
+        Product product = new Product();
+        product.setId(entity.id);
+        product.setBarcode(entity.barcode);
+        product.setName(entity.name);
+        product.setBrand(entity.brand);
+        product.setCategories(entity.categories != null ? entity.categories : Collections.emptyList());
+        product.setPackaging(entity.packaging);
+        product.setQuantity(entity.quantity);
+        product.setLabels(entity.labels);
+        product.setGenericName(entity.genericName);
+        product.setImageUrl(entity.imageUrl);
+        product.setIngredients(entity.ingredients != null ? entity.ingredients : Collections.emptyList());
+        product.setEcoscoreGrade(entity.ecoscoreGrade);
+        product.setEcoscoreScore(entity.ecoscoreScore);
+        product.setWasteCategoryId(entity.wasteCategoryId);
+
+        EnvironmentInfo info = new EnvironmentInfo();
+        info.setEcoScoreGrade(entity.ecoscoreGrade);
+        info.setEcoScoreScore(entity.ecoscoreScore);
+        info.setCo2Per100g(entity.co2Per100g);
+        info.setPackagingWarning(entity.packagingWarning);
+        if (entity.packagingMaterials != null) {
+            info.getPackagingMaterials().addAll(entity.packagingMaterials);
+        }
+        if (entity.packagingParts != null) {
+            info.getPackagingParts().addAll(entity.packagingParts);
+        }
+        info.setContainsPalmOil(Boolean.TRUE.equals(entity.containsPalmOil));
+        info.setThreatenedSpeciesIngredient(entity.threatenedSpeciesIngredient);
+        product.setEnvironmentInfo(info);
+        return product;
     }
 
     /**
      * Convert Product domain model to ProductEntity.
-     * This method will be implemented once ProductEntity is created.
+     * Timestamps and source are set by the repository when the row is written.
      * 
      * @param product Product domain model
-     * @return ProductEntity for database storage
+     * @return ProductEntity for database storage, or null if the product has no identity
+     */
+    public ProductEntity toEntity(Product product) {
+        if (product == null) {
+            return null;
+        }
+        String id = product.getId() != null ? product.getId() : product.getBarcode();
+        if (id == null) {
+            return null;
+        }
+
+        ProductEntity entity = new ProductEntity();
+        entity.id = id;
+        entity.barcode = product.getBarcode();
+        entity.name = product.getName();
+        entity.brand = product.getBrand();
+        entity.categories = product.getCategories();
+        entity.packaging = product.getPackaging();
+        entity.quantity = product.getQuantity();
+        entity.labels = product.getLabels();
+        entity.genericName = product.getGenericName();
+        entity.imageUrl = product.getImageUrl();
+        entity.ingredients = product.getIngredients();
+        entity.ecoscoreGrade = product.getEcoscoreGrade();
+        entity.ecoscoreScore = product.getEcoscoreScore();
+        entity.wasteCategoryId = product.getWasteCategoryId();
+
+        EnvironmentInfo info = product.getEnvironmentInfo();
+        if (info != null) {
+            entity.co2Per100g = info.getCo2Per100g();
+            entity.packagingWarning = info.getPackagingWarning();
+            entity.packagingMaterials = info.getPackagingMaterials();
+            entity.packagingParts = info.getPackagingParts();
+            entity.containsPalmOil = info.isContainsPalmOil();
+            entity.threatenedSpeciesIngredient = info.getThreatenedSpeciesIngredient();
+        }
+        return entity;
+    }
+
+    /**
+     * Build the environmental information (eco-score, CO2, packaging, palm oil) of a product.
+     * 
+     * @param dto ProductDto from API response
+     * @return EnvironmentInfo, never null (fields are empty when OFF has no data)
+     */
+    EnvironmentInfo toEnvironmentInfo(ProductDto dto) {
+        EnvironmentInfo info = new EnvironmentInfo();
+
+        String ecoScoreGrade = dto.getEcoscoreGrade();
+        if (ecoScoreGrade != null && ecoScoreGrade.trim().isEmpty()) {
+            ecoScoreGrade = null;
+        }
+        info.setEcoScoreGrade(ecoScoreGrade);
+        Integer ecoScoreValue = dto.getEcoscoreScore();
+        if (ecoScoreValue != null && ecoScoreValue >= 0) {
+            info.setEcoScoreScore(ecoScoreValue);
+        }
+
+        EcoscoreDataDto ecoscoreData = dto.getEcoscoreData();
+        if (ecoscoreData != null) {
+            EcoscoreDataDto.Agribalyse agribalyse = ecoscoreData.getAgribalyse();
+            if (agribalyse != null && agribalyse.getCo2Total() != null
+                    && !agribalyse.getCo2Total().isNaN()) {
+                info.setCo2Per100g(agribalyse.getCo2Total());
+            }
+
+            EcoscoreDataDto.Adjustments adjustments = ecoscoreData.getAdjustments();
+            if (adjustments != null) {
+                if (adjustments.getPackaging() != null) {
+                    info.setPackagingWarning(adjustments.getPackaging().getWarning());
+                }
+                if (adjustments.getThreatenedSpecies() != null) {
+                    info.setThreatenedSpeciesIngredient(adjustments.getThreatenedSpecies().getIngredient());
+                }
+            }
+        }
+
+        if (dto.getPackagingMaterialsTags() != null) {
+            for (String material : dto.getPackagingMaterialsTags()) {
+                if (material != null && !material.isEmpty()) {
+                    info.getPackagingMaterials().add(material.replace("en:", "").replace('-', ' '));
+                }
+            }
+        }
+
+        if (dto.getPackagings() != null) {
+            for (PackagingDto part : dto.getPackagings()) {
+                if (part == null) {
+                    continue;
+                }
+                String assembled = describePackagingPart(part);
+                if (!assembled.isEmpty()) {
+                    info.getPackagingParts().add(assembled);
+                }
+            }
+        }
+
+        if (dto.getIngredientsAnalysisTags() != null) {
+            for (String tag : dto.getIngredientsAnalysisTags()) {
+                if ("en:palm-oil".equalsIgnoreCase(tag)) {
+                    info.setContainsPalmOil(true);
+                    break;
+                }
+            }
+        }
+
+        if (info.getThreatenedSpeciesIngredient() != null
+                && info.getThreatenedSpeciesIngredient().toLowerCase(Locale.ROOT).contains("palm")) {
+            info.setContainsPalmOil(true);
+        }
+
+        return info;
+    }
+
+    /**
+     * Describe one packaging component as "shape · material · weight".
      */
-    public Object toEntity(Product product) {
-        // TODO: Implement once ProductEntity is created
-        // This is a placeholder that will be replaced with actual mapping logic
-        throw new UnsupportedOperationException("ProductEntity mapping not yet implemented");
+    private String describePackagingPart(PackagingDto part) {
+        String material = PackagingDto.asText(part.getMaterial());
+        if (material.isEmpty()) {
+            material = PackagingDto.asText(part.getMaterialName());
+        }
+        String shape = PackagingDto.asText(part.getShape());
+        if (shape.isEmpty()) {
+            shape = PackagingDto.asText(part.getShapeName());
+        }
+        String weight = PackagingDto.asText(part.getWeight());
+
+        StringBuilder builder = new StringBuilder();
+        if (!shape.isEmpty()) {
+            builder.append(shape);
+        }
+        if (!material.isEmpty()) {
+            if (builder.length() > 0) builder.append(" · ");
+            builder.append(material);
+        }
+        if (!weight.isEmpty()) {
+            if (builder.length() > 0) builder.append(" · ");
+            builder.append(weight);
+        }
+        return builder.toString().trim();
+    }
+
+    /**
+     * Use the free-text packaging field, falling back to the packaging tags.
+     */
+    private String resolvePackaging(ProductDto dto) {
+        String packaging = dto.getPackaging();
+        if ((packaging == null || packaging.trim().isEmpty())
+                && dto.getPackagingTags() != null && !dto.getPackagingTags().isEmpty()) {
+            return String.join(", ", dto.getPackagingTags());
+        }
+        return packaging;
     }
 
     /**
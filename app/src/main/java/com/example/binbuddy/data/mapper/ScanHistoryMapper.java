@@ -0,0 +1,74 @@
+package com.example.binbuddy.data.mapper;
+
+import com.example.binbuddy.data.entity.ScanHistoryEntity;
+import com.example.binbuddy.data.entity.ScanHistoryWithProduct;
+import com.example.binbuddy.domain.model.ScanHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapper class to convert between ScanHistory Entity and Domain model.
+ */
+public class ScanHistoryMapper {
+
+    private final ProductMapper productMapper;
+
+    public ScanHistoryMapper(ProductMapper productMapper) {
+        this.productMapper = productMapper;
+    }
+
+    /**
+     * Convert a scan row and its related product to a ScanHistory domain model.
+     * 
+     * @param row Scan with product from database
+     * @return ScanHistory domain model (product is null if it was never cached)
+     */
+    public ScanHistory toDomain(ScanHistoryWithProduct row) {
+        if (row == null || row.scan == null) {
+            return null;
+        }
+        return new ScanHistory.Builder()
+                .setId(row.scan.id)
+                .setBarcode(row.scan.barcode)
+                .setProduct(productMapper.toDomainFromEntity(row.product, null))
+                .setTimestamp(row.scan.timestamp)
+                .setLocation(row.scan.location)
+                .build();
+    }
+
+    /**
+     * Convert a list of scan rows to domain models.
+     */
+    public List<ScanHistory> toDomainList(List<ScanHistoryWithProduct> rows) {
+        List<ScanHistory> scans = new ArrayList<>(rows != null ? rows.size() : 0);
+        if (rows != null) {
+            for (ScanHistoryWithProduct row : rows) {
+                ScanHistory scan = toDomain(row);
+                if (scan != null) {
+                    scans.add(scan);
+                }
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Convert ScanHistory domain model to ScanHistoryEntity.
+     * 
+     * @param scan ScanHistory domain model
+     * @return ScanHistoryEntity for database storage
+     */
+    public ScanHistoryEntity toEntity(ScanHistory scan) {
+        if (scan == null) {
+            return null;
+        }
+        ScanHistoryEntity entity = new ScanHistoryEntity();
+        entity.id = scan.getId();
+        entity.barcode = scan.getBarcode();
+        entity.productId = scan.getProduct() != null ? scan.getProduct().getId() : null;
+        entity.timestamp = scan.getTimestamp();
+        entity.location = scan.getLocation();
+        return entity;
+    }
+}
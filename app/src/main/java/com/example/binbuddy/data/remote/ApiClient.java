@@ -1,45 +0,0 @@
-package com.example.binbuddy.data.remote;
-
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
-import java.util.concurrent.TimeUnit;
-
-public class ApiClient {
-    private static final String BASE_URL = "https://world.openfoodfacts.org/";
-    private static Retrofit retrofit;
-
-    public static Retrofit getRetrofitInstance() {
-        if (retrofit == null) {
-            Gson gson = new GsonBuilder()
-                .setLenient()
-                .create();
-
-            OkHttpClient.Builder httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS);
-
-            // Add logging interceptor for debug builds
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-            httpClient.addInterceptor(logging);
-
-            retrofit = new Retrofit.Builder()
-                .baseUrl(BASE_URL)
-                .client(httpClient.build())
-                .addConverterFactory(GsonConverterFactory.create(gson))
-                .build();
-        }
-        return retrofit;
-    }
-
-    public static OpenFoodFactsApi getApiService() {
-        return getRetrofitInstance().create(OpenFoodFactsApi.class);
-    }
-}
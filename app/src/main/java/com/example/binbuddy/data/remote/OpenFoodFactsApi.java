@@ -13,11 +13,13 @@ public interface OpenFoodFactsApi {
      * Get product by barcode.
      * 
      * @param barcode Product barcode
+     * @param fields Comma-separated field projection (see ProductFields)
      * @return ProductResponse containing product data
      */
     @GET("api/v0/product/{barcode}.json")
     Call<com.example.binbuddy.data.remote.model.ProductResponse> getProduct(
-            @retrofit2.http.Path("barcode") String barcode
+            @retrofit2.http.Path("barcode") String barcode,
+            @Query("fields") String fields
     );
 
     /**
@@ -27,15 +29,17 @@ public interface OpenFoodFactsApi {
      * @param countries Country filter (e.g., "Germany")
      * @param pageSize Number of results per page
      * @param page Page number
-     * @return SearchResponse containing list of products
+     * @param fields Comma-separated field projection (see ProductFields)
+     * @return Stream over the products of the page, read while the body downloads (must be closed)
      */
     @GET("cgi/search.pl")
-    Call<com.example.binbuddy.data.remote.model.SearchResponse> searchProducts(
+    Call<ProductStream> searchProducts(
             @Query("search_terms") String searchTerms,
             @Query("countries") String countries,
             @Query("page_size") int pageSize,
             @Query("page") int page,
             @Query("action") String action,
-            @Query("json") int json
+            @Query("json") int json,
+            @Query("fields") String fields
     );
 }
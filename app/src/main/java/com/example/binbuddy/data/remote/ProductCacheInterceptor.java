@@ -0,0 +1,135 @@
+package com.example.binbuddy.data.remote;
+
+import android.util.Log;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Network interceptor that makes product lookups cacheable.
+ *
+ * Open Food Facts does not send useful cache headers for product JSON, so the OkHttp disk
+ * cache would never serve it. This rewrites Cache-Control on successful product responses,
+ * so a repeated lookup within the max age is answered from disk without opening a socket.
+ * Only hits (status 1) are made cacheable: "not found" answers also come back as HTTP 200, and
+ * caching them would hide a product added upstream for the whole max age.
+ * Search responses are left untouched.
+ */
+public class ProductCacheInterceptor implements Interceptor {
+
+    private static final String TAG = "ProductCacheInterceptor";
+
+    public static final long DEFAULT_MAX_AGE_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
+    private static final String PRODUCT_PATH_PREFIX = "/api/v0/product/";
+
+    // Lookups only request the fields the app reads (see ProductFields), so the status is
+    // normally found within the first few kilobytes
+    static final long MAX_STATUS_SCAN_BYTES = 64 * 1024;
+
+    private final long maxAgeSeconds;
+
+    public ProductCacheInterceptor() {
+        this(DEFAULT_MAX_AGE_SECONDS);
+    }
+
+    public ProductCacheInterceptor(long maxAgeSeconds) {
+        if (maxAgeSeconds <= 0) {
+            throw new IllegalArgumentException("Max age must be positive");
+        }
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!isProductLookup(request) || !response.isSuccessful() || !isProductFound(response)) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "public, max-age=" + maxAgeSeconds)
+                .build();
+    }
+
+    /**
+     * Read the top-level "status" of the body without consuming it.
+     * Network interceptors see the body as sent, before BridgeInterceptor removes the gzip
+     * encoding, so a gzip body is inflated here. Reading stops at the status or after
+     * MAX_STATUS_SCAN_BYTES of JSON, whichever comes first.
+     */
+    private static boolean isProductFound(Response response) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return false;
+        }
+        Source source = body.source().peek();
+        if ("gzip".equalsIgnoreCase(response.header("Content-Encoding"))) {
+            source = new GzipSource(source);
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                Okio.buffer(new BoundedSource(source, MAX_STATUS_SCAN_BYTES)).inputStream(),
+                StandardCharsets.UTF_8))) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return false;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("status".equals(reader.nextName()) && reader.peek() == JsonToken.NUMBER) {
+                    return reader.nextInt() == 1;
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Could not read product status, not caching", e);
+        }
+        return false;
+    }
+
+    private static boolean isProductLookup(Request request) {
+        return "GET".equals(request.method())
+                && request.url().encodedPath().startsWith(PRODUCT_PATH_PREFIX);
+    }
+
+    /**
+     * Fails the read once more than the given number of bytes have been read.
+     */
+    private static final class BoundedSource extends ForwardingSource {
+        private long remaining;
+
+        BoundedSource(Source delegate, long limit) {
+            super(delegate);
+            this.remaining = limit;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            if (remaining <= 0) {
+                throw new IOException("No status in the first " + MAX_STATUS_SCAN_BYTES + " bytes");
+            }
+            long read = super.read(sink, Math.min(byteCount, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.binbuddy.data.remote;
+
+/**
+ * Field projection for Open Food Facts requests (the {@code fields} query parameter).
+ *
+ * A full OFF product document carries nutrient, image and per-language maps that the app never
+ * reads. Requesting only the fields below keeps responses small and Gson parsing cheap.
+ * When a mapper or the EnvironmentInfo parsing starts reading a new field, add it here.
+ */
+public final class ProductFields {
+
+    /**
+     * Fields read by ProductMapper / ProductDto.
+     */
+    private static final String BASIC = "code,product_name,brands,categories,packaging,packaging_tags,"
+            + "quantity,ingredients,labels,generic_name,image_url";
+
+    /**
+     * Fields read when building EnvironmentInfo (eco-score and packaging details).
+     */
+    private static final String ENVIRONMENT = "ecoscore_grade,ecoscore_score,ecoscore_data,"
+            + "packaging_materials_tags,packagings,ingredients_analysis_tags";
+
+    /**
+     * Projection used for both product lookups and search. Search results are cached and may
+     * later be served on the detail screen, so both request the same fields.
+     */
+    public static final String PRODUCT = BASIC + "," + ENVIRONMENT;
+
+    private ProductFields() {
+        // Constants only
+    }
+}
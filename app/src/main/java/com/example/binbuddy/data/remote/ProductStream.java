@@ -0,0 +1,100 @@
+package com.example.binbuddy.data.remote;
+
+import com.example.binbuddy.data.remote.model.ProductDto;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Pull-based reader over the "products" array of an Open Food Facts search response.
+ *
+ * Products are bound one at a time while the body is still being downloaded, so callers can
+ * map and publish the first results before the rest of the page has arrived. Only the current
+ * product is held in memory. Fields other than "products" are skipped.
+ *
+ * Must be closed to release the underlying connection.
+ */
+public class ProductStream implements Closeable {
+
+    private static final String PRODUCTS_FIELD = "products";
+
+    private final ResponseBody body;
+    private final JsonReader reader;
+    private final TypeAdapter<ProductDto> productAdapter;
+
+    private boolean inProductsArray;
+    private boolean finished;
+
+    ProductStream(Gson gson, ResponseBody body) {
+        this.body = body;
+        this.reader = gson.newJsonReader(body.charStream());
+        this.reader.setLenient(true);
+        this.productAdapter = gson.getAdapter(ProductDto.class);
+    }
+
+    /**
+     * Read the next product.
+     *
+     * @return Next product, or null once the array (or the document) is exhausted
+     * @throws IOException If the connection fails or the body is malformed
+     */
+    public ProductDto next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!inProductsArray && !seekProductsArray()) {
+            finished = true;
+            return null;
+        }
+
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                return productAdapter.read(reader);
+            }
+            // Tolerate nulls or stray values inside the array
+            reader.skipValue();
+        }
+        reader.endArray();
+        finished = true;
+        return null;
+    }
+
+    /**
+     * Advance to the first element of the "products" array.
+     *
+     * @return false if the document has no products array
+     */
+    private boolean seekProductsArray() throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return false;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (PRODUCTS_FIELD.equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                inProductsArray = true;
+                return true;
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        try {
+            reader.close();
+        } catch (IOException ignored) {
+            // Closing the body below releases the connection either way
+        }
+        body.close();
+    }
+}
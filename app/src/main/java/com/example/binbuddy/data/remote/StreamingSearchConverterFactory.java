@@ -0,0 +1,42 @@
+package com.example.binbuddy.data.remote;
+
+import com.google.gson.Gson;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Retrofit converter for endpoints declared as {@code Call<ProductStream>}.
+ *
+ * Unlike GsonConverterFactory it does not bind the whole body: it hands the open body to a
+ * ProductStream, which then owns it and must be closed by the caller. Register it before
+ * GsonConverterFactory, which would otherwise claim every type.
+ */
+public final class StreamingSearchConverterFactory extends Converter.Factory {
+
+    private final Gson gson;
+
+    private StreamingSearchConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    public static StreamingSearchConverterFactory create(Gson gson) {
+        if (gson == null) {
+            throw new NullPointerException("gson == null");
+        }
+        return new StreamingSearchConverterFactory(gson);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        if (type != ProductStream.class) {
+            return null;
+        }
+        return body -> new ProductStream(gson, body);
+    }
+}
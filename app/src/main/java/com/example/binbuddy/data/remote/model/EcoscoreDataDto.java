@@ -0,0 +1,65 @@
+package com.example.binbuddy.data.remote.model;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Subset of the "ecoscore_data" object used for EnvironmentInfo.
+ */
+public class EcoscoreDataDto {
+    @SerializedName("agribalyse")
+    private Agribalyse agribalyse;
+
+    @SerializedName("adjustments")
+    private Adjustments adjustments;
+
+    public Agribalyse getAgribalyse() {
+        return agribalyse;
+    }
+
+    public Adjustments getAdjustments() {
+        return adjustments;
+    }
+
+    public static class Agribalyse {
+        @SerializedName("co2_total")
+        private Double co2Total;
+
+        public Double getCo2Total() {
+            return co2Total;
+        }
+    }
+
+    public static class Adjustments {
+        @SerializedName("packaging")
+        private PackagingAdjustment packaging;
+
+        @SerializedName("threatened_species")
+        private ThreatenedSpecies threatenedSpecies;
+
+        public PackagingAdjustment getPackaging() {
+            return packaging;
+        }
+
+        public ThreatenedSpecies getThreatenedSpecies() {
+            return threatenedSpecies;
+        }
+    }
+
+    public static class PackagingAdjustment {
+        @SerializedName("warning")
+        private String warning;
+
+        public String getWarning() {
+            return warning;
+        }
+    }
+
+    public static class ThreatenedSpecies {
+        @SerializedName("ingredient")
+        private String ingredient;
+
+        public String getIngredient() {
+            return ingredient;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.binbuddy.data.remote.model;
+
+import com.google.gson.JsonElement;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Packaging component data transfer object (entry of "packagings").
+ * OFF returns these fields either as plain values or as objects depending on the product,
+ * so they are kept as raw JSON and read with {@link #asText(JsonElement)}.
+ */
+public class PackagingDto {
+    @SerializedName("material")
+    private JsonElement material;
+
+    @SerializedName("material_name")
+    private JsonElement materialName;
+
+    @SerializedName("shape")
+    private JsonElement shape;
+
+    @SerializedName("shape_name")
+    private JsonElement shapeName;
+
+    @SerializedName("weight")
+    private JsonElement weight;
+
+    public JsonElement getMaterial() {
+        return material;
+    }
+
+    public JsonElement getMaterialName() {
+        return materialName;
+    }
+
+    public JsonElement getShape() {
+        return shape;
+    }
+
+    public JsonElement getShapeName() {
+        return shapeName;
+    }
+
+    public JsonElement getWeight() {
+        return weight;
+    }
+
+    /**
+     * Read a packaging field as text.
+     *
+     * @param element Raw field value
+     * @return Primitive value as string, or the "id" of an object value; empty if absent
+     */
+    public static String asText(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return "";
+        }
+        if (element.isJsonPrimitive()) {
+            return element.getAsString();
+        }
+        if (element.isJsonObject() && element.getAsJsonObject().has("id")) {
+            return asText(element.getAsJsonObject().get("id"));
+        }
+        return "";
+    }
+}
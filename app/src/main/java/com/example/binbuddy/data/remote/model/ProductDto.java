@@ -38,6 +38,27 @@ public class ProductDto {
     @SerializedName("image_url")
     private String imageUrl;
 
+    @SerializedName("packaging_tags")
+    private List<String> packagingTags;
+
+    @SerializedName("ecoscore_grade")
+    private String ecoscoreGrade;
+
+    @SerializedName("ecoscore_score")
+    private Integer ecoscoreScore;
+
+    @SerializedName("ecoscore_data")
+    private EcoscoreDataDto ecoscoreData;
+
+    @SerializedName("packaging_materials_tags")
+    private List<String> packagingMaterialsTags;
+
+    @SerializedName("packagings")
+    private List<PackagingDto> packagings;
+
+    @SerializedName("ingredients_analysis_tags")
+    private List<String> ingredientsAnalysisTags;
+
     // Getters and setters
     public String getBarcode() {
         return barcode;
@@ -118,4 +139,60 @@ public class ProductDto {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public List<String> getPackagingTags() {
+        return packagingTags;
+    }
+
+    public void setPackagingTags(List<String> packagingTags) {
+        this.packagingTags = packagingTags;
+    }
+
+    public String getEcoscoreGrade() {
+        return ecoscoreGrade;
+    }
+
+    public void setEcoscoreGrade(String ecoscoreGrade) {
+        this.ecoscoreGrade = ecoscoreGrade;
+    }
+
+    public Integer getEcoscoreScore() {
+        return ecoscoreScore;
+    }
+
+    public void setEcoscoreScore(Integer ecoscoreScore) {
+        this.ecoscoreScore = ecoscoreScore;
+    }
+
+    public EcoscoreDataDto getEcoscoreData() {
+        return ecoscoreData;
+    }
+
+    public void setEcoscoreData(EcoscoreDataDto ecoscoreData) {
+        this.ecoscoreData = ecoscoreData;
+    }
+
+    public List<String> getPackagingMaterialsTags() {
+        return packagingMaterialsTags;
+    }
+
+    public void setPackagingMaterialsTags(List<String> packagingMaterialsTags) {
+        this.packagingMaterialsTags = packagingMaterialsTags;
+    }
+
+    public List<PackagingDto> getPackagings() {
+        return packagings;
+    }
+
+    public void setPackagings(List<PackagingDto> packagings) {
+        this.packagings = packagings;
+    }
+
+    public List<String> getIngredientsAnalysisTags() {
+        return ingredientsAnalysisTags;
+    }
+
+    public void setIngredientsAnalysisTags(List<String> ingredientsAnalysisTags) {
+        this.ingredientsAnalysisTags = ingredientsAnalysisTags;
+    }
 }
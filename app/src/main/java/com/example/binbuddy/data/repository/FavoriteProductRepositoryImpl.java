@@ -1,98 +1,187 @@
 package com.example.binbuddy.data.repository;
 
+import android.util.Log;
+
+import com.example.binbuddy.data.dao.FavoriteProductDao;
+import com.example.binbuddy.data.entity.FavoriteProductEntity;
+import com.example.binbuddy.data.entity.ProductEntity;
 import com.example.binbuddy.data.mapper.ProductMapper;
 import com.example.binbuddy.domain.model.Product;
 import com.example.binbuddy.domain.repository.FavoriteProductRepository;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import kotlinx.coroutines.flow.Flow;
+import kotlinx.coroutines.flow.MutableStateFlow;
+import kotlinx.coroutines.flow.StateFlowKt;
 
 /**
  * Implementation of FavoriteProductRepository.
  * Manages user's favorite products.
- * 
- * NOTE: This implementation uses Kotlin Flow. To use Flow from Java,
- * you need to add kotlinx-coroutines-core dependency.
+ *
+ * The IDs of all favorites are kept in a concurrent set, loaded once from FavoriteProductDao and
+ * updated by every add/remove, so membership checks never query the database. Changes made
+ * before that load finished take precedence over the stored state it reads. The favorite
+ * products themselves are loaded with one JOIN and re-read after each write.
+ *
+ * Database work runs on a single background thread, in call order.
  */
+@Singleton
 public class FavoriteProductRepositoryImpl implements FavoriteProductRepository {
 
-    // TODO: Inject via constructor/Dagger once dependencies are set up
-    // private final FavoriteProductDao favoriteProductDao;
-    // private final ProductDao productDao;
+    private static final String TAG = "FavoriteProductRepositoryImpl";
+
+    private final FavoriteProductDao favoriteProductDao;
     private final ProductMapper productMapper;
     private final ExecutorService executorService;
 
-    public FavoriteProductRepositoryImpl(ProductMapper productMapper) {
+    private final Set<String> favoriteIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean favoriteIdsLoaded;
+    // Guards merging the initial load with optimistic updates made before it finished
+    private final Object favoriteIdsLock = new Object();
+    // IDs added or removed before the initial load finished; their stored state is outdated
+    private final Set<String> changedBeforeLoad = new HashSet<>();
+
+    private final MutableStateFlow<List<Product>> favoritesFlow =
+            StateFlowKt.MutableStateFlow(Collections.emptyList());
+    private final AtomicBoolean favoritesRequested = new AtomicBoolean(false);
+
+    @Inject
+    public FavoriteProductRepositoryImpl(FavoriteProductDao favoriteProductDao, ProductMapper productMapper) {
+        this.favoriteProductDao = favoriteProductDao;
         this.productMapper = productMapper;
         this.executorService = Executors.newSingleThreadExecutor();
+        executorService.execute(this::loadFavoriteIds);
     }
 
     @Override
     public Flow<List<Product>> getFavorites() {
-        // TODO: Implement once FavoriteProductDao and ProductDao are available
-        // Strategy: Query favorites → load products → map to domain models
-        
-        // Placeholder implementation
-        // This will be replaced with:
-        // 1. Query FavoriteProductDao.getFavorites()
-        // 2. For each favorite, load Product from ProductDao
-        // 3. Map to Product domain models
-        // 4. Return Flow<List<Product>>
-        
-        throw new UnsupportedOperationException(
-            "FavoriteProductRepositoryImpl.getFavorites() not yet implemented. " +
-            "Requires FavoriteProductDao and ProductDao to be created first."
-        );
+        if (favoritesRequested.compareAndSet(false, true)) {
+            executorService.execute(this::loadFavorites);
+        }
+        return favoritesFlow;
     }
 
     @Override
     public Flow<Boolean> isFavorite(String productId) {
-        // TODO: Implement once FavoriteProductDao is available
-        // Strategy: Query database to check if product is favorited
-        
-        // Placeholder implementation
-        // This will be replaced with:
-        // 1. Query FavoriteProductDao.isFavorite(productId)
-        // 2. Return Flow<Boolean>
-        
-        throw new UnsupportedOperationException(
-            "FavoriteProductRepositoryImpl.isFavorite() not yet implemented. " +
-            "Requires FavoriteProductDao to be created first."
-        );
+        MutableStateFlow<Boolean> flow = StateFlowKt.MutableStateFlow(isFavoriteNow(productId));
+        if (!favoriteIdsLoaded && productId != null) {
+            // Queued behind the initial load
+            executorService.execute(() -> flow.setValue(favoriteIds.contains(productId)));
+        }
+        return flow;
+    }
+
+    @Override
+    public boolean isFavoriteNow(String productId) {
+        return productId != null && favoriteIds.contains(productId);
     }
 
     @Override
     public void addFavorite(String productId) {
-        // TODO: Implement once FavoriteProductDao is available
-        
+        if (productId == null || !updateFavoriteId(productId, true)) {
+            return;
+        }
         executorService.execute(() -> {
             try {
-                // favoriteProductDao.addFavorite(productId);
-                android.util.Log.d("FavoriteProductRepositoryImpl", "Adding favorite: " + productId);
+                FavoriteProductEntity favorite = new FavoriteProductEntity();
+                favorite.productId = productId;
+                favoriteProductDao.addFavorite(favorite);
             } catch (Exception e) {
-                android.util.Log.e("FavoriteProductRepositoryImpl", "Error adding favorite", e);
+                // e.g. the product is not cached, so the foreign key rejects it
+                Log.e(TAG, "Error adding favorite", e);
+                favoriteIds.remove(productId);
             }
+            refreshFavorites();
         });
     }
 
     @Override
     public void removeFavorite(String productId) {
-        // TODO: Implement once FavoriteProductDao is available
-        
+        if (productId == null || !updateFavoriteId(productId, false)) {
+            return;
+        }
         executorService.execute(() -> {
             try {
-                // favoriteProductDao.removeFavorite(productId);
-                android.util.Log.d("FavoriteProductRepositoryImpl", "Removing favorite: " + productId);
+                favoriteProductDao.removeFavoriteByProductId(productId);
             } catch (Exception e) {
-                android.util.Log.e("FavoriteProductRepositoryImpl", "Error removing favorite", e);
+                Log.e(TAG, "Error removing favorite", e);
+                favoriteIds.add(productId);
             }
+            refreshFavorites();
         });
     }
 
+    /**
+     * Apply an add or remove to the ID set right away.
+     *
+     * @return true if the change has to be written, false if the set already had that state
+     */
+    private boolean updateFavoriteId(String productId, boolean favorite) {
+        synchronized (favoriteIdsLock) {
+            boolean changed = favorite ? favoriteIds.add(productId) : favoriteIds.remove(productId);
+            if (favoriteIdsLoaded) {
+                return changed;
+            }
+            // Keep the initial load from overriding this change; the write is queued behind it
+            changedBeforeLoad.add(productId);
+            return true;
+        }
+    }
+
+    private void loadFavoriteIds() {
+        try {
+            List<String> ids = favoriteProductDao.getFavoriteProductIds();
+            synchronized (favoriteIdsLock) {
+                for (String id : ids) {
+                    if (id != null && !changedBeforeLoad.contains(id)) {
+                        favoriteIds.add(id);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading favorite ids", e);
+        } finally {
+            synchronized (favoriteIdsLock) {
+                favoriteIdsLoaded = true;
+                changedBeforeLoad.clear();
+            }
+        }
+    }
+
+    private void refreshFavorites() {
+        if (favoritesRequested.get()) {
+            loadFavorites();
+        }
+    }
+
+    private void loadFavorites() {
+        try {
+            List<ProductEntity> entities = favoriteProductDao.getFavoriteProducts();
+            List<Product> products = new ArrayList<>(entities.size());
+            for (ProductEntity entity : entities) {
+                Product product = productMapper.toDomainFromEntity(entity, null);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+            favoritesFlow.setValue(Collections.unmodifiableList(products));
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading favorites", e);
+        }
+    }
+
     /**
      * Cleanup resources.
      */
@@ -2,24 +2,34 @@ package com.example.binbuddy.data.repository;
 
 import android.content.Context;
 
+import com.example.binbuddy.data.cache.FreshnessPolicy;
+import com.example.binbuddy.data.cache.ProductCache;
 import com.example.binbuddy.data.dao.ProductDao;
 import com.example.binbuddy.data.entity.ProductEntity;
 import com.example.binbuddy.data.mapper.ProductMapper;
 import com.example.binbuddy.data.mapper.WasteCategoryMapper;
 import com.example.binbuddy.data.remote.OpenFoodFactsApi;
+import com.example.binbuddy.data.remote.ProductFields;
+import com.example.binbuddy.data.remote.ProductStream;
 import com.example.binbuddy.data.remote.model.ProductDto;
 import com.example.binbuddy.data.remote.model.ProductResponse;
-import com.example.binbuddy.data.remote.model.SearchResponse;
+import com.example.binbuddy.data.util.FtsQueryBuilder;
 import com.example.binbuddy.data.util.NetworkChecker;
 import com.example.binbuddy.domain.model.AppError;
 import com.example.binbuddy.domain.model.Product;
 import com.example.binbuddy.domain.model.Result;
+import com.example.binbuddy.domain.model.WasteCategory;
 import com.example.binbuddy.domain.repository.ProductRepository;
+import com.example.binbuddy.domain.service.ClassificationRules;
+import com.example.binbuddy.domain.service.WasteClassificationService;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -34,8 +44,11 @@ import retrofit2.Response;
  * Provides product data from cache → database → API → saves to database.
  * 
  * Strategy:
- * 1. Check in-memory cache (if implemented)
- * 2. Query database via ProductDao
+ * 1. Check in-memory cache (bounded LRU, see ProductCache)
+ * 2. Join an in-flight lookup for the same barcode, or query database via ProductDao
+ *    - fresh rows are served without a network call
+ *    - stale rows are served and revalidated in the background
+ *    - expired rows are treated as misses (see FreshnessPolicy)
  * 3. If not found and online, call API via OpenFoodFactsApi
  * 4. Save to database
  * 5. Return Result<Product> with proper error handling
@@ -47,30 +60,54 @@ import retrofit2.Response;
  */
 public class ProductRepositoryImpl implements ProductRepository {
 
+    private static final int SEARCH_PAGE_SIZE = 20;
+    // Publish streamed search results after the first product and then every N products
+    private static final int SEARCH_EMIT_INTERVAL = 5;
+    private static final int CLASSIFICATION_BATCH_SIZE = 200;
+
     private final ProductDao productDao;
     private final OpenFoodFactsApi apiService;
     private final ProductMapper productMapper;
     private final WasteCategoryMapper wasteCategoryMapper;
     private final NetworkChecker networkChecker;
     private final ExecutorService executorService;
+    // Low-priority thread for cache-wide work, so it never queues ahead of lookups and searches
+    private final ExecutorService maintenanceExecutor;
     private final Context context;
+    private final ProductCache memoryCache;
+    private final FreshnessPolicy freshnessPolicy;
+    private final WasteClassificationService wasteClassificationService;
 
-    // In-memory cache (simple implementation, can be enhanced with LRU cache)
-    private final java.util.Map<String, Product> memoryCache = new java.util.concurrent.ConcurrentHashMap<>();
+    // Lookups currently running, keyed by barcode, so concurrent callers share one DB read and fetch
+    private final Map<String, MutableStateFlow<Result<Product>>> inFlightRequests = new ConcurrentHashMap<>();
 
     public ProductRepositoryImpl(
             Context context,
             ProductDao productDao,
             OpenFoodFactsApi apiService,
             ProductMapper productMapper,
-            WasteCategoryMapper wasteCategoryMapper) {
+            WasteCategoryMapper wasteCategoryMapper,
+            ProductCache memoryCache,
+            FreshnessPolicy freshnessPolicy,
+            WasteClassificationService wasteClassificationService) {
         this.context = context.getApplicationContext();
         this.productDao = productDao;
         this.apiService = apiService;
         this.productMapper = productMapper;
         this.wasteCategoryMapper = wasteCategoryMapper;
+        this.memoryCache = memoryCache;
+        this.freshnessPolicy = freshnessPolicy;
+        this.wasteClassificationService = wasteClassificationService;
         this.networkChecker = new NetworkChecker(context);
         this.executorService = Executors.newFixedThreadPool(2);
+        this.maintenanceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "product-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
@@ -82,174 +119,209 @@ public class ProductRepositoryImpl implements ProductRepository {
             return errorFlow;
         }
 
+        // 1. Check in-memory cache (no executor round trip needed)
+        Product cachedProduct = memoryCache.get(barcode);
+        if (cachedProduct != null) {
+            MutableStateFlow<Result<Product>> cachedFlow = StateFlowKt.MutableStateFlow(
+                Result.successFromCache(cachedProduct)
+            );
+            return cachedFlow;
+        }
+
         MutableStateFlow<Result<Product>> resultFlow = StateFlowKt.MutableStateFlow(
             Result.success(null) // Initial loading state
         );
 
+        // Join an in-flight lookup for the same barcode instead of starting a second one
+        MutableStateFlow<Result<Product>> inFlightFlow = inFlightRequests.putIfAbsent(barcode, resultFlow);
+        if (inFlightFlow != null) {
+            return inFlightFlow;
+        }
+
         executorService.execute(() -> {
             try {
-                // 1. Check in-memory cache
-                Product cachedProduct = memoryCache.get(barcode);
-                if (cachedProduct != null) {
-                    resultFlow.setValue(Result.successFromCache(cachedProduct));
-                    return;
-                }
+                loadProduct(barcode, resultFlow);
+            } finally {
+                inFlightRequests.remove(barcode, resultFlow);
+            }
+        });
 
-                // 2. Check database cache
-                ProductEntity entity = productDao.getProduct(barcode);
-                if (entity != null) {
-                    Product product = productMapper.toDomainFromEntity(entity, null);
-                    if (product != null) {
-                        // Store in memory cache
+        return resultFlow;
+    }
+
+    /**
+     * Load a product from database and/or API, publishing every result to the shared flow.
+     * Runs on the executor; all callers that joined the in-flight request observe the same flow.
+     */
+    private void loadProduct(String barcode, MutableStateFlow<Result<Product>> resultFlow) {
+        // Expired row kept as the fallback for a failed fetch
+        Product expiredProduct = null;
+        try {
+            // 2. Check database cache
+            ProductEntity entity = productDao.getProduct(barcode);
+            if (entity != null) {
+                Product product = productMapper.toDomainFromEntity(entity, null);
+                if (product != null) {
+                    ensureClassified(entity, product);
+                    boolean connected = networkChecker.isConnected();
+                    FreshnessPolicy.Freshness freshness =
+                        freshnessPolicy.evaluate(entity, System.currentTimeMillis());
+
+                    // If offline, return cached data (even expired) with offline warning
+                    if (!connected) {
                         memoryCache.put(barcode, product);
-                        
-                        // If offline, return cached data with offline warning
-                        if (!networkChecker.isConnected()) {
-                            resultFlow.setValue(Result.offlineError(product, 
-                                "Showing cached data - no internet connection"));
-                        } else {
-                            resultFlow.setValue(Result.successFromCache(product));
-                        }
-                        
-                        // Still try to refresh in background if online
-                        if (networkChecker.isConnected()) {
-                            refreshProductFromApi(barcode, resultFlow);
-                        }
+                        resultFlow.setValue(Result.offlineError(product, 
+                            "Showing cached data - no internet connection"));
                         return;
                     }
-                }
 
-                // 3. If not in cache and online, fetch from API
-                if (networkChecker.isConnected()) {
-                    fetchProductFromApi(barcode, resultFlow);
-                } else {
-                    // Offline and no cached data
-                    resultFlow.setValue(Result.error(AppError.offlineError(
-                        "No internet connection and no cached data available")));
+                    if (freshness == FreshnessPolicy.Freshness.FRESH) {
+                        // Fresh row: no network round trip
+                        memoryCache.put(barcode, product);
+                        resultFlow.setValue(Result.successFromCache(product));
+                        return;
+                    }
+
+                    if (freshness == FreshnessPolicy.Freshness.STALE) {
+                        // Stale row: serve it now, revalidate in the background;
+                        // joined callers share this single fetch
+                        memoryCache.put(barcode, product);
+                        resultFlow.setValue(Result.successFromCache(product));
+                        refreshProductFromApi(barcode, resultFlow);
+                        return;
+                    }
+
+                    // Expired row: fetch like a miss, but keep it in case the fetch fails
+                    expiredProduct = product;
                 }
-            } catch (Exception e) {
-                android.util.Log.e("ProductRepositoryImpl", "Error getting product", e);
-                resultFlow.setValue(Result.error(AppError.databaseError(
-                    "Error accessing database", e)));
             }
-        });
 
-        return resultFlow;
+            // 3. If not in cache (or expired) and online, fetch from API
+            if (networkChecker.isConnected()) {
+                fetchProductFromApi(barcode, expiredProduct, resultFlow);
+            } else {
+                // Offline and no cached data
+                resultFlow.setValue(Result.error(AppError.offlineError(
+                    "No internet connection and no cached data available")));
+            }
+        } catch (Exception e) {
+            android.util.Log.e("ProductRepositoryImpl", "Error getting product", e);
+            resultFlow.setValue(Result.error(AppError.databaseError(
+                "Error accessing database", e)));
+        }
     }
 
     /**
      * Fetch product from API and update cache.
+     * Called on the executor thread that owns the in-flight request.
+     *
+     * @param cachedProduct Expired cached row, served with a warning if the fetch fails for any
+     *                      reason other than the product not existing; null if there is none
      */
-    private void fetchProductFromApi(String barcode, MutableStateFlow<Result<Product>> resultFlow) {
-        executorService.execute(() -> {
-            try {
-                Response<ProductResponse> response = apiService.getProduct(barcode).execute();
+    private void fetchProductFromApi(String barcode, Product cachedProduct,
+                                     MutableStateFlow<Result<Product>> resultFlow) {
+        try {
+            Response<ProductResponse> response = apiService.getProduct(barcode, ProductFields.PRODUCT).execute();
+            
+            if (response.isSuccessful() && response.body() != null) {
+                ProductResponse productResponse = response.body();
                 
-                if (response.isSuccessful() && response.body() != null) {
-                    ProductResponse productResponse = response.body();
+                if (productResponse.getStatus() == 1 && productResponse.getProduct() != null) {
+                    ProductDto dto = productResponse.getProduct();
+                    Product product = productMapper.toDomain(dto, null);
                     
-                    if (productResponse.getStatus() == 1 && productResponse.getProduct() != null) {
-                        ProductDto dto = productResponse.getProduct();
-                        Product product = productMapper.toDomain(dto, null);
+                    if (product != null) {
+                        // Save to database cache
+                        saveProductToDatabase(product, ProductEntity.SOURCE_LOOKUP);
                         
-                        if (product != null) {
-                            // Save to database cache
-                            saveProductToDatabase(product);
-                            
-                            // Store in memory cache
-                            memoryCache.put(barcode, product);
-                            
-                            resultFlow.setValue(Result.success(product));
-                        } else {
-                            resultFlow.setValue(Result.error(AppError.parseError(
-                                "Failed to map product data", null)));
-                        }
+                        // Store in memory cache
+                        memoryCache.put(barcode, product);
+                        
+                        resultFlow.setValue(Result.success(product));
                     } else {
-                        // Product not found (status != 1)
-                        String statusVerbose = productResponse.getStatusVerbose();
-                        resultFlow.setValue(Result.error(AppError.notFoundError(
-                            statusVerbose != null ? statusVerbose : "Product not found")));
+                        publishFetchFailure(resultFlow, cachedProduct, AppError.parseError(
+                            "Failed to map product data", null));
                     }
                 } else {
-                    // HTTP error
-                    int statusCode = response.code();
-                    if (statusCode == 404) {
-                        resultFlow.setValue(Result.error(AppError.notFoundError(
-                            "Product not found (HTTP 404)")));
-                    } else if (statusCode >= 500) {
-                        resultFlow.setValue(Result.error(AppError.serverError(statusCode,
-                            "Server error: HTTP " + statusCode)));
-                    } else {
-                        resultFlow.setValue(Result.error(AppError.networkError(
-                            "API request failed: HTTP " + statusCode, null)));
-                    }
+                    // Product not found (status != 1)
+                    String statusVerbose = productResponse.getStatusVerbose();
+                    resultFlow.setValue(Result.error(AppError.notFoundError(
+                        statusVerbose != null ? statusVerbose : "Product not found")));
                 }
-            } catch (IOException e) {
-                android.util.Log.e("ProductRepositoryImpl", "Network error fetching product", e);
-                
-                // Try to return cached data if available
-                try {
-                    ProductEntity entity = productDao.getProduct(barcode);
-                    if (entity != null) {
-                        Product product = productMapper.toDomainFromEntity(entity, null);
-                        if (product != null) {
-                            resultFlow.setValue(Result.offlineError(product,
-                                "Network error - showing cached data"));
-                            return;
-                        }
-                    }
-                } catch (Exception dbException) {
-                    android.util.Log.e("ProductRepositoryImpl", "Error getting cached product", dbException);
-                }
-                
-                // No cached data available
-                if (e instanceof java.net.SocketTimeoutException) {
-                    resultFlow.setValue(Result.error(AppError.timeoutError(
-                        "Request timed out", e)));
+            } else {
+                // HTTP error
+                int statusCode = response.code();
+                if (statusCode == 404) {
+                    resultFlow.setValue(Result.error(AppError.notFoundError(
+                        "Product not found (HTTP 404)")));
+                } else if (statusCode >= 500) {
+                    publishFetchFailure(resultFlow, cachedProduct, AppError.serverError(statusCode,
+                        "Server error: HTTP " + statusCode));
                 } else {
-                    resultFlow.setValue(Result.error(AppError.networkError(
-                        "Network error: " + e.getMessage(), e)));
+                    publishFetchFailure(resultFlow, cachedProduct, AppError.networkError(
+                        "API request failed: HTTP " + statusCode, null));
                 }
-            } catch (Exception e) {
-                android.util.Log.e("ProductRepositoryImpl", "Unexpected error fetching product", e);
-                resultFlow.setValue(Result.error(AppError.unknownError(
-                    "Unexpected error: " + e.getMessage(), e)));
             }
-        });
+        } catch (IOException e) {
+            android.util.Log.e("ProductRepositoryImpl", "Network error fetching product", e);
+            if (e instanceof java.net.SocketTimeoutException) {
+                publishFetchFailure(resultFlow, cachedProduct, AppError.timeoutError(
+                    "Request timed out", e));
+            } else {
+                publishFetchFailure(resultFlow, cachedProduct, AppError.networkError(
+                    "Network error: " + e.getMessage(), e));
+            }
+        } catch (Exception e) {
+            android.util.Log.e("ProductRepositoryImpl", "Unexpected error fetching product", e);
+            publishFetchFailure(resultFlow, cachedProduct, AppError.unknownError(
+                "Unexpected error: " + e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Publish a failed lookup: the cached row with a warning if there is one, the error otherwise.
+     */
+    private void publishFetchFailure(MutableStateFlow<Result<Product>> resultFlow,
+                                     Product cachedProduct, AppError error) {
+        if (cachedProduct != null) {
+            resultFlow.setValue(Result.offlineError(cachedProduct,
+                "Could not refresh product - showing cached data"));
+        } else {
+            resultFlow.setValue(Result.error(error));
+        }
     }
 
     /**
-     * Refresh product from API in background (non-blocking).
+     * Refresh product from API after cached data has been emitted.
+     * Called on the executor thread that owns the in-flight request.
      */
     private void refreshProductFromApi(String barcode, MutableStateFlow<Result<Product>> resultFlow) {
-        executorService.execute(() -> {
-            try {
-                Response<ProductResponse> response = apiService.getProduct(barcode).execute();
+        try {
+            Response<ProductResponse> response = apiService.getProduct(barcode, ProductFields.PRODUCT).execute();
+            
+            if (response.isSuccessful() && response.body() != null) {
+                ProductResponse productResponse = response.body();
                 
-                if (response.isSuccessful() && response.body() != null) {
-                    ProductResponse productResponse = response.body();
+                if (productResponse.getStatus() == 1 && productResponse.getProduct() != null) {
+                    ProductDto dto = productResponse.getProduct();
+                    Product product = productMapper.toDomain(dto, null);
                     
-                    if (productResponse.getStatus() == 1 && productResponse.getProduct() != null) {
-                        ProductDto dto = productResponse.getProduct();
-                        Product product = productMapper.toDomain(dto, null);
+                    if (product != null) {
+                        // Update database cache
+                        saveProductToDatabase(product, ProductEntity.SOURCE_LOOKUP);
                         
-                        if (product != null) {
-                            // Update database cache
-                            saveProductToDatabase(product);
-                            
-                            // Update memory cache
-                            memoryCache.put(barcode, product);
-                            
-                            // Update flow with fresh data
-                            resultFlow.setValue(Result.success(product));
-                        }
+                        // Update memory cache
+                        memoryCache.put(barcode, product);
+                        
+                        // Update flow with fresh data
+                        resultFlow.setValue(Result.success(product));
                     }
                 }
-            } catch (Exception e) {
-                // Silently fail background refresh - cached data is already shown
-                android.util.Log.d("ProductRepositoryImpl", "Background refresh failed", e);
             }
-        });
+        } catch (Exception e) {
+            // Silently fail background refresh - cached data is already shown
+            android.util.Log.d("ProductRepositoryImpl", "Background refresh failed", e);
+        }
     }
 
     @Override
@@ -269,7 +341,7 @@ public class ProductRepositoryImpl implements ProductRepository {
             try {
                 // If offline, try to get cached search results from database
                 if (!networkChecker.isConnected()) {
-                    List<ProductEntity> entities = productDao.searchProducts(query);
+                    List<ProductEntity> entities = searchCachedProducts(query, SEARCH_PAGE_SIZE, 0);
                     if (entities != null && !entities.isEmpty()) {
                         List<Product> products = new ArrayList<>();
                         for (ProductEntity entity : entities) {
@@ -289,33 +361,46 @@ public class ProductRepositoryImpl implements ProductRepository {
 
                 // Online: fetch from API
                 String countries = germanyOnly ? "Germany" : null;
-                Response<SearchResponse> response = apiService.searchProducts(
-                    query, countries, 20, 1, "process", 1
+                Response<ProductStream> response = apiService.searchProducts(
+                    query, countries, SEARCH_PAGE_SIZE, 1, "process", 1, ProductFields.PRODUCT
                 ).execute();
 
                 if (response.isSuccessful() && response.body() != null) {
-                    SearchResponse searchResponse = response.body();
-                    List<ProductDto> productDtos = searchResponse.getProducts();
-                    
-                    if (productDtos != null && !productDtos.isEmpty()) {
-                        List<Product> products = new ArrayList<>();
-                        for (ProductDto dto : productDtos) {
+                    List<Product> products = new ArrayList<>();
+                    try (ProductStream stream = response.body()) {
+                        // Map products as they are parsed and publish early so the UI can render
+                        // the first results while the rest of the page is still downloading
+                        ProductDto dto;
+                        while ((dto = stream.next()) != null) {
                             try {
                                 Product product = productMapper.toDomain(dto, null);
                                 if (product != null) {
                                     products.add(product);
-                                    // Save to database cache
-                                    saveProductToDatabase(product);
+                                    if (products.size() == 1
+                                            || products.size() % SEARCH_EMIT_INTERVAL == 0) {
+                                        resultFlow.setValue(Result.success(new ArrayList<>(products)));
+                                    }
                                 }
                             } catch (Exception e) {
                                 android.util.Log.w("ProductRepositoryImpl", 
                                     "Failed to map product in search", e);
                             }
                         }
-                        
-                        resultFlow.setValue(Result.success(products));
-                    } else {
-                        resultFlow.setValue(Result.success(Collections.emptyList()));
+                    } catch (IOException e) {
+                        if (products.isEmpty()) {
+                            throw e;
+                        }
+                        // Connection dropped mid-page: keep the products that already arrived
+                        android.util.Log.w("ProductRepositoryImpl",
+                            "Search response truncated after " + products.size() + " products", e);
+                    }
+
+                    resultFlow.setValue(Result.success(products));
+
+                    // Persist the whole page in one transaction, after the UI has the results
+                    if (!products.isEmpty()) {
+                        executorService.execute(() ->
+                            saveProductsToDatabase(products, ProductEntity.SOURCE_SEARCH));
                     }
                 } else {
                     int statusCode = response.code();
@@ -332,7 +417,7 @@ public class ProductRepositoryImpl implements ProductRepository {
                 
                 // Try to return cached search results
                 try {
-                    List<ProductEntity> entities = productDao.searchProducts(query);
+                    List<ProductEntity> entities = searchCachedProducts(query, SEARCH_PAGE_SIZE, 0);
                     if (entities != null && !entities.isEmpty()) {
                         List<Product> products = new ArrayList<>();
                         for (ProductEntity entity : entities) {
@@ -374,7 +459,7 @@ public class ProductRepositoryImpl implements ProductRepository {
 
         executorService.execute(() -> {
             try {
-                saveProductToDatabase(product);
+                saveProductToDatabase(product, ProductEntity.SOURCE_LOOKUP);
                 
                 // Update memory cache
                 if (product.getBarcode() != null) {
@@ -386,15 +471,36 @@ public class ProductRepositoryImpl implements ProductRepository {
         });
     }
 
+    /**
+     * Search the local product cache via the products_fts full-text index.
+     * 
+     * @param query Raw user query
+     * @param limit Page size
+     * @param offset Number of rows to skip
+     * @return Matching rows, best matches first (empty if the query has no searchable token)
+     */
+    private List<ProductEntity> searchCachedProducts(String query, int limit, int offset) {
+        String matchQuery = FtsQueryBuilder.buildPrefixQuery(query);
+        if (matchQuery == null) {
+            return Collections.emptyList();
+        }
+        return productDao.searchProducts(matchQuery, FtsQueryBuilder.escapeLikePattern(query.trim()),
+                limit, offset);
+    }
+
     /**
      * Save product to database (internal method with error handling).
+     * 
+     * @param product Product to save
+     * @param source Where the data came from (ProductEntity.SOURCE_*), drives its freshness window
      */
-    private void saveProductToDatabase(Product product) {
+    private void saveProductToDatabase(Product product, String source) {
         try {
-            ProductEntity entity = (ProductEntity) productMapper.toEntity(product);
+            // Classify once at ingest; readers only look the category up
+            product.setWasteCategoryId(wasteClassificationService.determineWasteCategory(product).getId());
+            ProductEntity entity = toCacheEntity(product, source, System.currentTimeMillis());
             if (entity != null) {
-                entity.updatedAt = System.currentTimeMillis();
-                productDao.insertProduct(entity);
+                productDao.upsertProduct(entity);
             }
         } catch (Exception e) {
             android.util.Log.e("ProductRepositoryImpl", "Error saving product to database", e);
@@ -402,6 +508,49 @@ public class ProductRepositoryImpl implements ProductRepository {
         }
     }
 
+    /**
+     * Save a page of products in a single transaction.
+     * Runs in the background after results were emitted, so failures are only logged.
+     * 
+     * @param products Products to save
+     * @param source Where the data came from (ProductEntity.SOURCE_*)
+     */
+    private void saveProductsToDatabase(List<Product> products, String source) {
+        try {
+            long now = System.currentTimeMillis();
+            // Classify the page before writing, so category queries see it immediately
+            List<WasteCategory> categories = wasteClassificationService.classifyAll(products);
+            List<ProductEntity> entities = new ArrayList<>(products.size());
+            for (int i = 0; i < products.size(); i++) {
+                ProductEntity entity = toCacheEntity(products.get(i), source, now);
+                if (entity != null) {
+                    // Set on the row only: the products were already published to the UI
+                    entity.wasteCategoryId = categories.get(i).getId();
+                    entity.classificationVersion = ClassificationRules.RULES_VERSION;
+                    entities.add(entity);
+                }
+            }
+            if (!entities.isEmpty()) {
+                // Rows already cached by a full lookup keep their source and created_at
+                productDao.upsertSearchResults(entities);
+            }
+        } catch (Exception e) {
+            android.util.Log.e("ProductRepositoryImpl", "Error saving products to database", e);
+        }
+    }
+
+    private ProductEntity toCacheEntity(Product product, String source, long now) {
+        ProductEntity entity = productMapper.toEntity(product);
+        if (entity != null) {
+            entity.updatedAt = now;
+            entity.source = source;
+            if (entity.wasteCategoryId != null) {
+                entity.classificationVersion = ClassificationRules.RULES_VERSION;
+            }
+        }
+        return entity;
+    }
+
     @Override
     public Flow<Result<List<Product>>> getProductsByWasteCategory(String wasteCategoryId) {
         if (wasteCategoryId == null || wasteCategoryId.trim().isEmpty()) {
@@ -447,6 +596,60 @@ public class ProductRepositoryImpl implements ProductRepository {
         return resultFlow;
     }
 
+    /**
+     * Lazily (re)classify a cached row whose stored category is missing or stems from an older
+     * rule set, and store the result.
+     */
+    private void ensureClassified(ProductEntity entity, Product product) {
+        if (entity.wasteCategoryId != null && entity.classificationVersion != null
+                && entity.classificationVersion == ClassificationRules.RULES_VERSION) {
+            return;
+        }
+        String categoryId = wasteClassificationService.determineWasteCategory(product).getId();
+        product.setWasteCategoryId(categoryId);
+        try {
+            productDao.updateWasteCategory(entity.id, categoryId, ClassificationRules.RULES_VERSION);
+        } catch (Exception e) {
+            // The product still carries the fresh category; the batch pass will retry the write
+            android.util.Log.w("ProductRepositoryImpl", "Failed to store waste category", e);
+        }
+    }
+
+    @Override
+    public void reclassifyOutdatedProducts() {
+        maintenanceExecutor.execute(() -> {
+            try {
+                // Usual case after the first start with a rule set: nothing to do
+                if (productDao.getOutdatedClassifications(ClassificationRules.RULES_VERSION, 1).isEmpty()) {
+                    return;
+                }
+                int classified = 0;
+                List<ProductEntity> batch;
+                do {
+                    batch = productDao.getOutdatedClassifications(
+                        ClassificationRules.RULES_VERSION, CLASSIFICATION_BATCH_SIZE);
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    List<Product> products = new ArrayList<>(batch.size());
+                    for (ProductEntity entity : batch) {
+                        products.add(productMapper.toDomainFromEntity(entity, null));
+                    }
+                    List<WasteCategory> categories = wasteClassificationService.classifyAll(products);
+                    Map<String, String> categoryIds = new HashMap<>();
+                    for (int i = 0; i < batch.size(); i++) {
+                        categoryIds.put(batch.get(i).id, categories.get(i).getId());
+                    }
+                    productDao.updateWasteCategories(categoryIds, ClassificationRules.RULES_VERSION);
+                    classified += batch.size();
+                } while (batch.size() == CLASSIFICATION_BATCH_SIZE);
+                android.util.Log.d("ProductRepositoryImpl", "Reclassified " + classified + " cached products");
+            } catch (Exception e) {
+                android.util.Log.e("ProductRepositoryImpl", "Error classifying cached products", e);
+            }
+        });
+    }
+
     /**
      * Clear in-memory cache (useful for testing or memory management).
      */
@@ -454,6 +657,13 @@ public class ProductRepositoryImpl implements ProductRepository {
         memoryCache.clear();
     }
 
+    /**
+     * Get hit/miss/eviction counters of the in-memory cache.
+     */
+    public ProductCache.Stats getMemoryCacheStats() {
+        return memoryCache.getStats();
+    }
+
     /**
      * Cleanup resources.
      */
@@ -461,6 +671,7 @@ public class ProductRepositoryImpl implements ProductRepository {
         if (executorService != null && !executorService.isShutdown()) {
             executorService.shutdown();
         }
+        maintenanceExecutor.shutdown();
         memoryCache.clear();
     }
 }
@@ -1,105 +1,221 @@
 package com.example.binbuddy.data.repository;
 
-import com.example.binbuddy.data.mapper.ProductMapper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.binbuddy.data.dao.ScanHistoryDao;
+import com.example.binbuddy.data.database.AppDatabase;
+import com.example.binbuddy.data.entity.ScanHistoryWithProduct;
+import com.example.binbuddy.data.mapper.ScanHistoryMapper;
 import com.example.binbuddy.domain.model.ScanHistory;
 import com.example.binbuddy.domain.repository.ScanHistoryRepository;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import kotlinx.coroutines.flow.Flow;
+import kotlinx.coroutines.flow.MutableStateFlow;
+import kotlinx.coroutines.flow.StateFlowKt;
 
 /**
  * Implementation of ScanHistoryRepository.
  * Manages scan history data in the database.
- * 
- * NOTE: This implementation uses Kotlin Flow. To use Flow from Java,
- * you need to add kotlinx-coroutines-core dependency.
+ *
+ * Strategy:
+ * - The history is read in keyset pages (timestamp, id) from the timestamp index, so opening a
+ *   history of thousands of scans only reads the first page
+ * - Products are loaded with the page through a @Relation on the barcode (one IN query per page)
+ * - New scans go through ScanHistoryWriteBuffer, which writes bursts of scans in one transaction
+ * - One InvalidationTracker observer on scan_history and products re-reads the loaded window and
+ *   the recent-scan windows; the flows are StateFlows, so collectors always get the latest list
+ *
+ * All database work and the paging state are confined to a single background thread.
  */
+@Singleton
 public class ScanHistoryRepositoryImpl implements ScanHistoryRepository {
 
-    // TODO: Inject via constructor/Dagger once dependencies are set up
-    // private final ScanHistoryDao scanHistoryDao;
-    // private final ProductDao productDao;
-    private final ProductMapper productMapper;
+    private static final String TAG = "ScanHistoryRepositoryImpl";
+    static final int PAGE_SIZE = 50;
+
+    private final AppDatabase database;
+    private final ScanHistoryDao scanHistoryDao;
+    private final ScanHistoryMapper scanHistoryMapper;
+    private final ScanHistoryWriteBuffer writeBuffer;
     private final ExecutorService executorService;
 
-    public ScanHistoryRepositoryImpl(ProductMapper productMapper) {
-        this.productMapper = productMapper;
+    private final MutableStateFlow<List<ScanHistory>> historyFlow =
+            StateFlowKt.MutableStateFlow(Collections.emptyList());
+    // Recent-scan windows handed out by getRecentScans, keyed by limit
+    private final Map<Integer, MutableStateFlow<List<ScanHistory>>> recentFlows = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean historyRequested = new AtomicBoolean(false);
+    private final AtomicBoolean loadingMore = new AtomicBoolean(false);
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    // Confined to executorService
+    private int loadedCount;
+    private boolean endReached;
+
+    private final InvalidationTracker.Observer invalidationObserver =
+            new InvalidationTracker.Observer("scan_history", "products") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    // Coalesce bursts of writes into one re-read
+                    if (refreshPending.compareAndSet(false, true)) {
+                        executorService.execute(ScanHistoryRepositoryImpl.this::refresh);
+                    }
+                }
+            };
+
+    @Inject
+    public ScanHistoryRepositoryImpl(AppDatabase database, ScanHistoryDao scanHistoryDao,
+                                     ScanHistoryMapper scanHistoryMapper,
+                                     ScanHistoryWriteBuffer writeBuffer) {
+        this.database = database;
+        this.scanHistoryDao = scanHistoryDao;
+        this.scanHistoryMapper = scanHistoryMapper;
+        this.writeBuffer = writeBuffer;
         this.executorService = Executors.newSingleThreadExecutor();
+        // Registering may open the database, keep it off the caller's thread
+        executorService.execute(() -> database.getInvalidationTracker().addObserver(invalidationObserver));
     }
 
     @Override
     public Flow<List<ScanHistory>> getScanHistory() {
-        // TODO: Implement once ScanHistoryDao is available
-        // Strategy: Query database → map entities to domain models → return Flow
-        
-        // Placeholder implementation
-        // This will be replaced with:
-        // 1. Query ScanHistoryDao.getScanHistory()
-        // 2. For each entity, load associated Product
-        // 3. Map to ScanHistory domain model
-        // 4. Return Flow<List<ScanHistory>>
-        
-        throw new UnsupportedOperationException(
-            "ScanHistoryRepositoryImpl.getScanHistory() not yet implemented. " +
-            "Requires ScanHistoryDao to be created first."
-        );
+        if (historyRequested.compareAndSet(false, true)) {
+            executorService.execute(this::loadFirstPage);
+        }
+        return historyFlow;
+    }
+
+    @Override
+    public void loadMoreScanHistory() {
+        if (!historyRequested.get() || !loadingMore.compareAndSet(false, true)) {
+            return;
+        }
+        executorService.execute(() -> {
+            try {
+                loadNextPage();
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading scan history page", e);
+            } finally {
+                loadingMore.set(false);
+            }
+        });
     }
 
     @Override
     public Flow<List<ScanHistory>> getRecentScans(int limit) {
-        // TODO: Implement once ScanHistoryDao is available
-        // Strategy: Query database with limit → map to domain models
-        
-        // Placeholder implementation
-        // This will be replaced with:
-        // 1. Query ScanHistoryDao.getRecentScans(limit)
-        // 2. Map entities to domain models
-        // 3. Return Flow<List<ScanHistory>>
-        
-        throw new UnsupportedOperationException(
-            "ScanHistoryRepositoryImpl.getRecentScans() not yet implemented. " +
-            "Requires ScanHistoryDao to be created first."
-        );
+        int windowSize = Math.max(1, limit);
+        MutableStateFlow<List<ScanHistory>> flow = recentFlows.get(windowSize);
+        if (flow != null) {
+            return flow;
+        }
+        MutableStateFlow<List<ScanHistory>> created = StateFlowKt.MutableStateFlow(Collections.emptyList());
+        flow = recentFlows.putIfAbsent(windowSize, created);
+        if (flow == null) {
+            flow = created;
+            executorService.execute(() -> loadRecent(windowSize, created));
+        }
+        return flow;
     }
 
     @Override
     public void saveScan(ScanHistory scan) {
-        // TODO: Implement once ScanHistoryDao is available
-        // Strategy: Convert domain model to entity → save to database
-        
+        // Written with the next batch; the invalidation observer then refreshes the flows
+        writeBuffer.add(scanHistoryMapper.toEntity(scan));
+    }
+
+    @Override
+    public void deleteScan(long id) {
         executorService.execute(() -> {
             try {
-                // Object entity = mapToEntity(scan);
-                // scanHistoryDao.insertScan(entity);
-                android.util.Log.d("ScanHistoryRepositoryImpl", "Saving scan: " + scan.getBarcode());
+                scanHistoryDao.deleteScanById(id);
             } catch (Exception e) {
-                android.util.Log.e("ScanHistoryRepositoryImpl", "Error saving scan", e);
+                Log.e(TAG, "Error deleting scan", e);
             }
         });
     }
 
-    @Override
-    public void deleteScan(long id) {
-        // TODO: Implement once ScanHistoryDao is available
-        
-        executorService.execute(() -> {
+    private void loadFirstPage() {
+        try {
+            List<ScanHistoryWithProduct> rows = scanHistoryDao.getScanHistoryPage(PAGE_SIZE);
+            publishHistory(scanHistoryMapper.toDomainList(rows), rows.size() < PAGE_SIZE);
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading scan history", e);
+        }
+    }
+
+    private void loadNextPage() {
+        if (endReached) {
+            return;
+        }
+        List<ScanHistory> current = historyFlow.getValue();
+        if (current.isEmpty()) {
+            loadFirstPage();
+            return;
+        }
+        ScanHistory last = current.get(current.size() - 1);
+        List<ScanHistoryWithProduct> rows = scanHistoryDao.getScanHistoryPageBefore(
+                last.getTimestamp(), last.getId(), PAGE_SIZE);
+        List<ScanHistory> merged = new ArrayList<>(current.size() + rows.size());
+        merged.addAll(current);
+        merged.addAll(scanHistoryMapper.toDomainList(rows));
+        publishHistory(merged, rows.size() < PAGE_SIZE);
+    }
+
+    private void loadRecent(int limit, MutableStateFlow<List<ScanHistory>> flow) {
+        try {
+            flow.setValue(Collections.unmodifiableList(
+                    scanHistoryMapper.toDomainList(scanHistoryDao.getScanHistoryPage(limit))));
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading recent scans", e);
+        }
+    }
+
+    /**
+     * Re-read every window that has been handed out after scans or products changed.
+     */
+    private void refresh() {
+        refreshPending.set(false);
+        if (historyRequested.get()) {
             try {
-                // scanHistoryDao.deleteScan(id);
-                android.util.Log.d("ScanHistoryRepositoryImpl", "Deleting scan: " + id);
+                // Keep the window the user has already scrolled through
+                int window = Math.max(loadedCount, PAGE_SIZE);
+                List<ScanHistoryWithProduct> rows = scanHistoryDao.getScanHistoryPage(window);
+                publishHistory(scanHistoryMapper.toDomainList(rows), rows.size() < window);
             } catch (Exception e) {
-                android.util.Log.e("ScanHistoryRepositoryImpl", "Error deleting scan", e);
+                Log.e(TAG, "Error refreshing scan history", e);
             }
-        });
+        }
+        for (Map.Entry<Integer, MutableStateFlow<List<ScanHistory>>> entry : recentFlows.entrySet()) {
+            loadRecent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void publishHistory(List<ScanHistory> history, boolean reachedEnd) {
+        loadedCount = history.size();
+        endReached = reachedEnd;
+        historyFlow.setValue(Collections.unmodifiableList(history));
     }
 
     /**
      * Cleanup resources.
      */
     public void shutdown() {
+        database.getInvalidationTracker().removeObserver(invalidationObserver);
         if (executorService != null && !executorService.isShutdown()) {
             executorService.shutdown();
         }
@@ -0,0 +1,206 @@
+package com.example.binbuddy.data.repository;
+
+import android.content.ComponentCallbacks2;
+import android.database.sqlite.SQLiteConstraintException;
+import android.util.Log;
+
+import com.example.binbuddy.data.dao.ScanHistoryDao;
+import com.example.binbuddy.data.entity.ScanHistoryEntity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for scan history rows.
+ *
+ * Scans are queued in memory and inserted together in one transaction when
+ * - {@code maxBatchSize} scans are pending,
+ * - the oldest pending scan has waited {@code flushDelayMs}, or
+ * - the app's UI is hidden (see {@link #onTrimMemory(int)}).
+ *
+ * A re-scan of the barcode scanned last, within {@code duplicateWindowMs} of it, is merged into
+ * the earlier scan instead of creating a row. The queue is bounded: if writes stall and
+ * {@code capacity} scans are pending, the oldest one is dropped.
+ */
+public class ScanHistoryWriteBuffer {
+
+    private static final String TAG = "ScanHistoryWriteBuffer";
+
+    public static final int DEFAULT_CAPACITY = 200;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 20;
+    public static final long DEFAULT_FLUSH_DELAY_MS = TimeUnit.SECONDS.toMillis(2);
+    public static final long DEFAULT_DUPLICATE_WINDOW_MS = TimeUnit.SECONDS.toMillis(3);
+
+    private final ScanHistoryDao scanHistoryDao;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long flushDelayMs;
+    private final long duplicateWindowMs;
+    private final ScheduledExecutorService writeExecutor;
+
+    // Guarded by this
+    private final ArrayDeque<ScanHistoryEntity> pending = new ArrayDeque<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private String lastBarcode;
+    private long lastTimestamp;
+
+    private long mergedCount;
+    private long droppedCount;
+
+    public ScanHistoryWriteBuffer(ScanHistoryDao scanHistoryDao) {
+        this(scanHistoryDao, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_FLUSH_DELAY_MS,
+                DEFAULT_DUPLICATE_WINDOW_MS);
+    }
+
+    public ScanHistoryWriteBuffer(ScanHistoryDao scanHistoryDao, int capacity, int maxBatchSize,
+                                  long flushDelayMs, long duplicateWindowMs) {
+        if (maxBatchSize <= 0 || capacity < maxBatchSize || flushDelayMs <= 0 || duplicateWindowMs < 0) {
+            throw new IllegalArgumentException("Invalid write buffer limits");
+        }
+        this.scanHistoryDao = scanHistoryDao;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.flushDelayMs = flushDelayMs;
+        this.duplicateWindowMs = duplicateWindowMs;
+        this.writeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scan-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a scan for writing.
+     *
+     * @param scan Scan row without id
+     */
+    public void add(ScanHistoryEntity scan) {
+        if (scan == null || scan.barcode == null) {
+            return;
+        }
+        long timestamp = scan.timestamp != null ? scan.timestamp : System.currentTimeMillis();
+        synchronized (this) {
+            boolean duplicate = scan.barcode.equals(lastBarcode)
+                    && Math.abs(timestamp - lastTimestamp) <= duplicateWindowMs;
+            lastBarcode = scan.barcode;
+            lastTimestamp = timestamp;
+            if (duplicate) {
+                mergeIntoPending(scan);
+                return;
+            }
+
+            if (pending.size() >= capacity) {
+                pending.pollFirst();
+                droppedCount++;
+                Log.w(TAG, "Write buffer full, dropped oldest scan");
+            }
+            pending.addLast(scan);
+
+            if (pending.size() >= maxBatchSize) {
+                requestFlushLocked(0L);
+            } else if (scheduledFlush == null) {
+                requestFlushLocked(flushDelayMs);
+            }
+        }
+    }
+
+    /**
+     * Write all pending scans now (asynchronously).
+     */
+    public synchronized void flush() {
+        if (!pending.isEmpty()) {
+            requestFlushLocked(0L);
+        }
+    }
+
+    /**
+     * Flush when the app leaves the foreground, reported via
+     * {@link ComponentCallbacks2#onTrimMemory(int)}.
+     *
+     * @param level Trim level passed to onTrimMemory
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            flush();
+        }
+    }
+
+    /**
+     * Number of scans merged into an earlier scan of the same barcode.
+     */
+    public synchronized long getMergedCount() {
+        return mergedCount;
+    }
+
+    /**
+     * Number of scans dropped because the queue was full.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Fill in what the re-scan knows and the pending scan does not. A duplicate of a scan that
+     * was already written is simply dropped.
+     */
+    private void mergeIntoPending(ScanHistoryEntity scan) {
+        mergedCount++;
+        Iterator<ScanHistoryEntity> iterator = pending.descendingIterator();
+        while (iterator.hasNext()) {
+            ScanHistoryEntity earlier = iterator.next();
+            if (scan.barcode.equals(earlier.barcode)) {
+                if (earlier.productId == null) {
+                    earlier.productId = scan.productId;
+                }
+                if (earlier.location == null) {
+                    earlier.location = scan.location;
+                }
+                return;
+            }
+        }
+    }
+
+    private void requestFlushLocked(long delayMs) {
+        if (scheduledFlush != null) {
+            if (delayMs > 0L || scheduledFlush.getDelay(TimeUnit.MILLISECONDS) <= 0L) {
+                return;
+            }
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = writeExecutor.schedule(this::writePending, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void writePending() {
+        List<ScanHistoryEntity> batch;
+        synchronized (this) {
+            scheduledFlush = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        try {
+            scanHistoryDao.saveScans(batch);
+        } catch (SQLiteConstraintException e) {
+            // A referenced product is not cached (yet); scans still find it by barcode later
+            Log.w(TAG, "Saving " + batch.size() + " scans without product reference");
+            for (ScanHistoryEntity scan : batch) {
+                scan.productId = null;
+            }
+            try {
+                scanHistoryDao.saveScans(batch);
+            } catch (Exception retryError) {
+                Log.e(TAG, "Error saving scans", retryError);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error saving scans", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.binbuddy.data.util;
+
+/**
+ * Builds FTS4 MATCH expressions from free-text user input.
+ * Every token becomes a prefix term and all terms must match, e.g. "bio milch" -> "bio* milch*".
+ * Characters with special meaning in FTS query syntax are dropped.
+ * Also escapes user input for LIKE patterns that accompany the MATCH (ESCAPE '\').
+ */
+public final class FtsQueryBuilder {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private FtsQueryBuilder() {
+    }
+
+    /**
+     * Convert user input into a prefix MATCH expression.
+     * 
+     * @param query Raw search query
+     * @return MATCH expression, or null if the query contains no searchable token
+     */
+    public static String buildPrefixQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder(query.length() + 8);
+        boolean inToken = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inToken && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(c);
+                inToken = true;
+            } else if (inToken) {
+                builder.append('*');
+                inToken = false;
+            }
+        }
+        if (inToken) {
+            builder.append('*');
+        }
+        return builder.length() > 0 ? builder.toString() : null;
+    }
+
+    /**
+     * Escape LIKE wildcards so user input matches literally in a pattern with ESCAPE '\'.
+     *
+     * @param value Raw text, may be null
+     * @return Text with '%', '_' and '\' escaped, or null if value is null
+     */
+    public static String escapeLikePattern(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                if (builder == null) {
+                    builder = new StringBuilder(value.length() + 4).append(value, 0, i);
+                }
+                builder.append(LIKE_ESCAPE);
+            }
+            if (builder != null) {
+                builder.append(c);
+            }
+        }
+        return builder != null ? builder.toString() : value;
+    }
+}
@@ -2,13 +2,13 @@ package com.example.binbuddy.di;
 
 import android.content.Context;
 
-import androidx.room.Room;
-
 import com.example.binbuddy.data.dao.FavoriteProductDao;
 import com.example.binbuddy.data.dao.ProductDao;
+import com.example.binbuddy.data.dao.ScanAggregateDao;
 import com.example.binbuddy.data.dao.ScanHistoryDao;
 import com.example.binbuddy.data.dao.WasteCategoryDao;
 import com.example.binbuddy.data.database.AppDatabase;
+import com.example.binbuddy.data.database.DatabaseMaintenance;
 
 import javax.inject.Singleton;
 
@@ -25,13 +25,14 @@ public class DatabaseModule {
     @Provides
     @Singleton
     public static AppDatabase provideAppDatabase(@ApplicationContext Context context) {
-        return Room.databaseBuilder(
-                context.getApplicationContext(),
-                AppDatabase.class,
-                "binbuddy_database"
-        )
-        .addCallback(new com.example.binbuddy.data.database.DatabaseInitializer())
-        .build();
+        // Share the single instance (and its migrations) with AppDatabase.getDatabase()
+        return AppDatabase.getDatabase(context);
+    }
+
+    @Provides
+    @Singleton
+    public static DatabaseMaintenance provideDatabaseMaintenance(AppDatabase database) {
+        return new DatabaseMaintenance(database, DatabaseMaintenance.Policy.createDefault());
     }
 
     @Provides
@@ -53,4 +54,9 @@ public class DatabaseModule {
     public static FavoriteProductDao provideFavoriteProductDao(AppDatabase database) {
         return database.favoriteProductDao();
     }
+
+    @Provides
+    public static ScanAggregateDao provideScanAggregateDao(AppDatabase database) {
+        return database.scanAggregateDao();
+    }
 }
@@ -1,15 +1,26 @@
 package com.example.binbuddy.di;
 
+import android.content.Context;
+
+import com.example.binbuddy.BuildConfig;
 import com.example.binbuddy.data.remote.OpenFoodFactsApi;
+import com.example.binbuddy.data.remote.ProductCacheInterceptor;
+import com.example.binbuddy.data.remote.StreamingSearchConverterFactory;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
 import dagger.hilt.InstallIn;
+import dagger.hilt.android.qualifiers.ApplicationContext;
 import dagger.hilt.components.SingletonComponent;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -21,6 +32,17 @@ public class NetworkModule {
 
     private static final String BASE_URL = "https://world.openfoodfacts.org/";
 
+    private static final String HTTP_CACHE_DIR = "http_cache";
+    private static final long HTTP_CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+
+    // All traffic goes to a single host, so a few long-lived connections are enough
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 15;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+    private static final long WRITE_TIMEOUT_SECONDS = 30;
+
     @Provides
     @Singleton
     public static Gson provideGson() {
@@ -31,11 +53,31 @@ public class NetworkModule {
 
     @Provides
     @Singleton
-    public static OkHttpClient provideOkHttpClient() {
+    public static Cache provideHttpCache(@ApplicationContext Context context) {
+        return new Cache(new File(context.getCacheDir(), HTTP_CACHE_DIR), HTTP_CACHE_SIZE_BYTES);
+    }
+
+    /**
+     * The single HTTP client of the app.
+     * OkHttp negotiates gzip transparently (Accept-Encoding is added and responses are
+     * decompressed) as long as no interceptor sets Accept-Encoding itself.
+     */
+    @Provides
+    @Singleton
+    public static OkHttpClient provideOkHttpClient(Cache cache) {
         HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+        // BODY logging buffers every response; keep it to request lines in debug and off in release
+        loggingInterceptor.setLevel(BuildConfig.DEBUG
+                ? HttpLoggingInterceptor.Level.BASIC
+                : HttpLoggingInterceptor.Level.NONE);
 
         return new OkHttpClient.Builder()
+                .cache(cache)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .addNetworkInterceptor(new ProductCacheInterceptor())
                 .addInterceptor(loggingInterceptor)
                 .build();
     }
@@ -45,6 +87,8 @@ public class NetworkModule {
     public static Retrofit provideRetrofit(Gson gson, OkHttpClient okHttpClient) {
         return new Retrofit.Builder()
                 .baseUrl(BASE_URL)
+                // Must precede Gson, which accepts every type
+                .addConverterFactory(StreamingSearchConverterFactory.create(gson))
                 .addConverterFactory(GsonConverterFactory.create(gson))
                 .client(okHttpClient)
                 .build();
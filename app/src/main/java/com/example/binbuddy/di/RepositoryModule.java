@@ -2,16 +2,26 @@ package com.example.binbuddy.di;
 
 import android.content.Context;
 
+import com.example.binbuddy.data.cache.FreshnessPolicy;
+import com.example.binbuddy.data.cache.ProductCache;
 import com.example.binbuddy.data.dao.ProductDao;
+import com.example.binbuddy.data.dao.ScanHistoryDao;
 import com.example.binbuddy.data.mapper.ProductMapper;
+import com.example.binbuddy.data.mapper.ScanHistoryMapper;
 import com.example.binbuddy.data.mapper.WasteCategoryMapper;
 import com.example.binbuddy.data.remote.OpenFoodFactsApi;
+import com.example.binbuddy.data.repository.FavoriteProductRepositoryImpl;
 import com.example.binbuddy.data.repository.ProductRepositoryImpl;
+import com.example.binbuddy.data.repository.ScanHistoryRepositoryImpl;
+import com.example.binbuddy.data.repository.ScanHistoryWriteBuffer;
 import com.example.binbuddy.data.repository.UserProgressRepositoryImpl;
 import com.example.binbuddy.data.repository.WasteCategoryRepositoryImpl;
+import com.example.binbuddy.domain.repository.FavoriteProductRepository;
 import com.example.binbuddy.domain.repository.ProductRepository;
+import com.example.binbuddy.domain.repository.ScanHistoryRepository;
 import com.example.binbuddy.domain.repository.UserProgressRepository;
 import com.example.binbuddy.domain.repository.WasteCategoryRepository;
+import com.example.binbuddy.domain.service.WasteClassificationService;
 
 import javax.inject.Singleton;
 
@@ -38,6 +48,40 @@ public abstract class RepositoryModule {
         return new ProductMapper();
     }
 
+    @Provides
+    @Singleton
+    public static ScanHistoryMapper provideScanHistoryMapper(ProductMapper productMapper) {
+        return new ScanHistoryMapper(productMapper);
+    }
+
+    @Provides
+    @Singleton
+    public static ProductCache provideProductCache() {
+        return new ProductCache(
+                ProductCache.DEFAULT_MAX_ENTRIES,
+                ProductCache.DEFAULT_MAX_BYTES,
+                ProductCache.DEFAULT_TTL_MS
+        );
+    }
+
+    @Provides
+    @Singleton
+    public static ScanHistoryWriteBuffer provideScanHistoryWriteBuffer(ScanHistoryDao scanHistoryDao) {
+        return new ScanHistoryWriteBuffer(
+                scanHistoryDao,
+                ScanHistoryWriteBuffer.DEFAULT_CAPACITY,
+                ScanHistoryWriteBuffer.DEFAULT_MAX_BATCH_SIZE,
+                ScanHistoryWriteBuffer.DEFAULT_FLUSH_DELAY_MS,
+                ScanHistoryWriteBuffer.DEFAULT_DUPLICATE_WINDOW_MS
+        );
+    }
+
+    @Provides
+    @Singleton
+    public static FreshnessPolicy provideFreshnessPolicy() {
+        return FreshnessPolicy.createDefault();
+    }
+
     @Binds
     @Singleton
     public abstract WasteCategoryRepository bindWasteCategoryRepository(
@@ -58,22 +102,31 @@ public abstract class RepositoryModule {
             ProductDao productDao,
             OpenFoodFactsApi apiService,
             ProductMapper productMapper,
-            WasteCategoryMapper wasteCategoryMapper) {
+            WasteCategoryMapper wasteCategoryMapper,
+            ProductCache productCache,
+            FreshnessPolicy freshnessPolicy,
+            WasteClassificationService wasteClassificationService) {
         return new ProductRepositoryImpl(
                 context,
                 productDao,
                 apiService,
                 productMapper,
-                wasteCategoryMapper
+                wasteCategoryMapper,
+                productCache,
+                freshnessPolicy,
+                wasteClassificationService
         );
     }
 
-    // TODO: Add other repository bindings when implementations are created
-    // @Binds
-    // @Singleton
-    // public abstract ScanHistoryRepository bindScanHistoryRepository(ScanHistoryRepositoryImpl impl);
-    //
-    // @Binds
-    // @Singleton
-    // public abstract FavoriteProductRepository bindFavoriteProductRepository(FavoriteProductRepositoryImpl impl);
+    @Binds
+    @Singleton
+    public abstract ScanHistoryRepository bindScanHistoryRepository(
+            ScanHistoryRepositoryImpl impl
+    );
+
+    @Binds
+    @Singleton
+    public abstract FavoriteProductRepository bindFavoriteProductRepository(
+            FavoriteProductRepositoryImpl impl
+    );
 }
@@ -1,6 +1,13 @@
 package com.example.binbuddy.di;
 
+import com.example.binbuddy.domain.repository.FavoriteProductRepository;
+import com.example.binbuddy.domain.repository.ScanHistoryRepository;
 import com.example.binbuddy.domain.repository.WasteCategoryRepository;
+import com.example.binbuddy.domain.service.WasteClassificationService;
+import com.example.binbuddy.domain.usecase.DeleteScanHistoryUseCase;
+import com.example.binbuddy.domain.usecase.GetFavoritesUseCase;
+import com.example.binbuddy.domain.usecase.GetScanHistoryUseCase;
+import com.example.binbuddy.domain.usecase.SaveScanHistoryUseCase;
 
 import javax.inject.Singleton;
 
@@ -17,6 +24,40 @@ import dagger.hilt.components.SingletonComponent;
 @InstallIn(SingletonComponent.class)
 public class UseCaseModule {
 
+    @Provides
+    @Singleton
+    public static WasteClassificationService provideWasteClassificationService() {
+        return new WasteClassificationService();
+    }
+
+    @Provides
+    @Singleton
+    public static SaveScanHistoryUseCase provideSaveScanHistoryUseCase(
+            ScanHistoryRepository repository) {
+        return new SaveScanHistoryUseCase(repository);
+    }
+
+    @Provides
+    @Singleton
+    public static GetScanHistoryUseCase provideGetScanHistoryUseCase(
+            ScanHistoryRepository repository) {
+        return new GetScanHistoryUseCase(repository);
+    }
+
+    @Provides
+    @Singleton
+    public static DeleteScanHistoryUseCase provideDeleteScanHistoryUseCase(
+            ScanHistoryRepository repository) {
+        return new DeleteScanHistoryUseCase(repository);
+    }
+
+    @Provides
+    @Singleton
+    public static GetFavoritesUseCase provideGetFavoritesUseCase(
+            FavoriteProductRepository repository) {
+        return new GetFavoritesUseCase(repository);
+    }
+
     // TODO: Add use case providers as they are implemented
     // Example:
     // @Provides
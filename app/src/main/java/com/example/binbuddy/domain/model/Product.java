@@ -18,6 +18,8 @@ public class Product {
     // Eco/green score data returned by the API
     private String ecoscoreGrade;
     private Integer ecoscoreScore;
+    // Stored classification (ClassificationRules.CategoryIds), null if not classified yet
+    private String wasteCategoryId;
 
     public Product() {
     }
@@ -152,4 +154,12 @@ public class Product {
     public void setEcoscoreScore(Integer ecoscoreScore) {
         this.ecoscoreScore = ecoscoreScore;
     }
+
+    public String getWasteCategoryId() {
+        return wasteCategoryId;
+    }
+
+    public void setWasteCategoryId(String wasteCategoryId) {
+        this.wasteCategoryId = wasteCategoryId;
+    }
 }
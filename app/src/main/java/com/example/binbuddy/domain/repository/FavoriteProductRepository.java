@@ -26,6 +26,15 @@ public interface FavoriteProductRepository {
      */
     Flow<Boolean> isFavorite(String productId);
 
+    /**
+     * Check if a product is favorited without blocking, e.g. while binding list rows.
+     * Answers from memory; returns false until the favorites have been loaded once.
+     * 
+     * @param productId Product ID
+     * @return true if favorited
+     */
+    boolean isFavoriteNow(String productId);
+
     /**
      * Add a product to favorites.
      * 
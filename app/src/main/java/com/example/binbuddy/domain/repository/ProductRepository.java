@@ -17,6 +17,7 @@ public interface ProductRepository {
      * Get a product by barcode.
      * Checks cache → database → API → saves to database.
      * Supports offline mode with cached data fallback.
+     * Concurrent calls for the same barcode share one lookup and receive the same Flow.
      * 
      * @param barcode Product barcode
      * @return Flow emitting Result<Product> (success with data, or error)
@@ -26,6 +27,7 @@ public interface ProductRepository {
     /**
      * Search for products by query string.
      * Supports offline mode with cached search results.
+     * Online results may be emitted progressively, each emission holding the products parsed so far.
      * 
      * @param query Search query
      * @param germanyOnly If true, filter results to Germany only
@@ -47,4 +49,12 @@ public interface ProductRepository {
      * @return Flow emitting Result<List<Product>> (success with data, or error)
      */
     Flow<Result<List<Product>>> getProductsByWasteCategory(String wasteCategoryId);
+
+    /**
+     * Classify cached products in the background, in batches, when they have no stored waste
+     * category or were classified with an older ClassificationRules.RULES_VERSION.
+     * Products saved from lookups and searches are classified when they are written, and rows
+     * read by getProduct are reclassified lazily.
+     */
+    void reclassifyOutdatedProducts();
 }
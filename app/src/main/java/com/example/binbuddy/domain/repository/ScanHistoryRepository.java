@@ -12,17 +12,25 @@ import kotlinx.coroutines.flow.Flow;
 public interface ScanHistoryRepository {
 
     /**
-     * Get all scan history entries.
+     * Get the scan history, newest first.
+     * The flow starts with the first page and grows with every {@link #loadMoreScanHistory()};
+     * it emits again whenever scans or their products change.
      * 
-     * @return Flow emitting list of scan history entries
+     * @return Flow emitting the loaded scan history entries
      */
     Flow<List<ScanHistory>> getScanHistory();
 
+    /**
+     * Append the next page of older scans to the flow returned by {@link #getScanHistory()}.
+     * No-op while a page is loading or once the whole history is loaded.
+     */
+    void loadMoreScanHistory();
+
     /**
      * Get recent scan history entries.
      * 
      * @param limit Maximum number of entries to return
-     * @return Flow emitting list of recent scan history entries
+     * @return Flow emitting list of recent scan history entries, again whenever they change
      */
     Flow<List<ScanHistory>> getRecentScans(int limit);
 
@@ -10,6 +10,12 @@ import java.util.Set;
  */
 public class ClassificationRules {
 
+    /**
+     * Version of the rule set. Bump whenever the keywords, rule bits or decision order used by
+     * WasteClassificationService change; stored classifications with another version are redone.
+     */
+    public static final int RULES_VERSION = 1;
+
     /**
      * Keywords that indicate plastic packaging
      */
@@ -84,6 +90,72 @@ public class ClassificationRules {
         public static final String RESTMUELL = "restmuell";
     }
 
+    /**
+     * Rule bits reported by {@link #KEYWORD_MATCHER}.
+     * Each bit stands for one keyword test of WasteClassificationService or PfandService.
+     * ProductFeatures packs the bits of several fields into one long, so they must fit in 16 bits.
+     */
+    public static class Rules {
+        /** Pfand/deposit marker in packaging or labels */
+        public static final int PFAND_MARKER = 1;
+        /** Beverage category */
+        public static final int BEVERAGE = 1 << 1;
+        /** "getränk" in packaging (beverage carton together with KARTON) */
+        public static final int DRINK_PACKAGING = 1 << 2;
+        /** "karton" in packaging */
+        public static final int KARTON = 1 << 3;
+        /** Plastic, metal or composite packaging -> Gelbe Tonne */
+        public static final int PACKAGING_YELLOW_BIN = 1 << 4;
+        /** Glass packaging */
+        public static final int PACKAGING_GLASS = 1 << 5;
+        /** Paper or cardboard packaging */
+        public static final int PACKAGING_PAPER = 1 << 6;
+        /** Organic or compostable packaging */
+        public static final int PACKAGING_ORGANIC = 1 << 7;
+        /** Fruit, vegetable or organic product category */
+        public static final int ORGANIC_CATEGORY = 1 << 8;
+        /** Organic label */
+        public static final int ORGANIC_LABEL = 1 << 9;
+        /** Recycling label */
+        public static final int RECYCLING_LABEL = 1 << 10;
+        /** Deposit container (bottle, can, einweg/mehrweg) in packaging, used by PfandService */
+        public static final int DEPOSIT_PACKAGING = 1 << 11;
+        /** Beverage category subject to deposit, used by PfandService */
+        public static final int DEPOSIT_CATEGORY = 1 << 12;
+        /** Reusable (Mehrweg) container */
+        public static final int REUSABLE = 1 << 13;
+        /** Single-use (Einweg) container */
+        public static final int SINGLE_USE = 1 << 14;
+        /** Beer, for the Mehrweg deposit amount */
+        public static final int BEER = 1 << 15;
+    }
+
+    /**
+     * All keywords of the classification rules, compiled once into a single automaton.
+     * Scanning a text yields the {@link Rules} bits of every keyword it contains.
+     */
+    public static final KeywordMatcher KEYWORD_MATCHER = new KeywordMatcher.Builder()
+            .add(Rules.PFAND_MARKER, "pfand", "deposit")
+            .add(Rules.BEVERAGE, "getränk", "drink", "beverage")
+            .add(Rules.DRINK_PACKAGING, "getränk")
+            .add(Rules.KARTON, "karton")
+            .add(Rules.PACKAGING_YELLOW_BIN, "plastic", "kunststoff", "pet", "pe", "pp", "ps", "pvc",
+                    "aluminium", "aluminum", "metall", "metal", "dose", "can", "tetra")
+            .add(Rules.PACKAGING_GLASS, "glass", "glas")
+            .add(Rules.PACKAGING_PAPER, "paper", "papier", "cardboard", "pappe", "karton", "carton")
+            .add(Rules.PACKAGING_ORGANIC, "bio", "organic", "biologisch", "kompostierbar", "compostable")
+            .add(Rules.ORGANIC_CATEGORY, "bio", "organic", "obst", "gemüse", "fruit", "vegetable")
+            .add(Rules.ORGANIC_LABEL, "bio", "organic", "biologisch")
+            .add(Rules.RECYCLING_LABEL, "recycling", "recycelbar", "recyclable")
+            .add(Rules.DEPOSIT_PACKAGING, "bottle", "flasche", "can", "dose", "pfand", "deposit",
+                    "einweg", "mehrweg", "returnable")
+            .add(Rules.DEPOSIT_CATEGORY, "beers", "bier", "soft drinks", "softdrinks", "soft-drinks",
+                    "beverages", "getränke", "drinks", "carbonated drinks")
+            .add(Rules.REUSABLE, "mehrweg", "reusable")
+            .add(Rules.SINGLE_USE, "einweg", "single-use")
+            .add(Rules.BEER, "beer", "bier")
+            .build();
+
     /**
      * Check if a string contains any of the given keywords (case-insensitive)
      */
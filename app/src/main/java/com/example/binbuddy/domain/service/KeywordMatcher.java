@@ -0,0 +1,261 @@
+package com.example.binbuddy.domain.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-keyword substring matcher (Aho-Corasick automaton).
+ *
+ * Every keyword carries a bit mask of the rules it belongs to. A scan walks the text once,
+ * folding case per character, and reports every keyword occurring anywhere in the text,
+ * in the same substring sense as {@code text.toLowerCase().contains(keyword)}.
+ * The scan does not allocate, so one instance can be shared across threads.
+ */
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+
+    // Per node: sorted outgoing characters and their target nodes
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Rules of every keyword ending at this node or at one of its failure ancestors
+    private final int[] outputRules;
+    // Keyword ending exactly at this node, or -1
+    private final int[] keywordAt;
+    // Nearest failure ancestor that ends a keyword, or -1
+    private final int[] outputLink;
+
+    private final String[] keywords;
+    private final int[] keywordRules;
+
+    private KeywordMatcher(char[][] edgeChars, int[][] edgeTargets, int[] failure, int[] outputRules,
+                           int[] keywordAt, int[] outputLink, String[] keywords, int[] keywordRules) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputRules = outputRules;
+        this.keywordAt = keywordAt;
+        this.outputLink = outputLink;
+        this.keywords = keywords;
+        this.keywordRules = keywordRules;
+    }
+
+    /**
+     * Scan a text and collect the rules of all keywords it contains.
+     *
+     * @param text Text to scan (case-insensitive), may be null
+     * @return OR of the rule masks of every keyword hit, 0 if none
+     */
+    public int matchRules(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int rules = 0;
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            rules |= outputRules[state];
+        }
+        return rules;
+    }
+
+    /**
+     * Scan a text and return every keyword hit with its rules.
+     * Intended for diagnostics; use {@link #matchRules(CharSequence)} on hot paths.
+     *
+     * @param text Text to scan (case-insensitive), may be null
+     * @return Hits in order of their end position
+     */
+    public List<Match> findMatches(CharSequence text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<Match> matches = new ArrayList<>();
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            int node = keywordAt[state] >= 0 ? state : outputLink[state];
+            while (node >= 0) {
+                int keyword = keywordAt[node];
+                matches.add(new Match(keywords[keyword], keywordRules[keyword],
+                        i + 1 - keywords[keyword].length()));
+                node = outputLink[node];
+            }
+        }
+        return matches;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = child(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failure[state];
+        }
+    }
+
+    private int child(int node, char c) {
+        int index = Arrays.binarySearch(edgeChars[node], c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    /**
+     * A single keyword occurrence.
+     */
+    public static final class Match {
+        private final String keyword;
+        private final int rules;
+        private final int start;
+
+        Match(String keyword, int rules, int start) {
+            this.keyword = keyword;
+            this.rules = rules;
+            this.start = start;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public int getRules() {
+            return rules;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        @Override
+        public String toString() {
+            return keyword + "@" + start;
+        }
+    }
+
+    /**
+     * Builder pattern for easier construction
+     */
+    public static class Builder {
+        // Keyword (lower case) -> rules; a keyword added under several rules keeps all of them
+        private final Map<String, Integer> keywords = new LinkedHashMap<>();
+
+        /**
+         * Add keywords for a rule.
+         *
+         * @param rules Rule bit(s) reported when one of the keywords occurs
+         * @param words Keywords, matched case-insensitively
+         */
+        public Builder add(int rules, String... words) {
+            for (String word : words) {
+                if (word == null || word.isEmpty()) {
+                    throw new IllegalArgumentException("Keyword must not be empty");
+                }
+                String folded = fold(word);
+                Integer existing = keywords.get(folded);
+                keywords.put(folded, existing != null ? existing | rules : rules);
+            }
+            return this;
+        }
+
+        public KeywordMatcher build() {
+            // Trie construction with growable per-node edge lists
+            List<StringBuilder> chars = new ArrayList<>();
+            List<List<Integer>> targets = new ArrayList<>();
+            List<Integer> terminal = new ArrayList<>();
+            chars.add(new StringBuilder());
+            targets.add(new ArrayList<>());
+            terminal.add(-1);
+
+            String[] words = keywords.keySet().toArray(new String[0]);
+            int[] wordRules = new int[words.length];
+            for (int w = 0; w < words.length; w++) {
+                wordRules[w] = keywords.get(words[w]);
+                int node = ROOT;
+                for (int i = 0; i < words[w].length(); i++) {
+                    char c = words[w].charAt(i);
+                    int index = chars.get(node).indexOf(String.valueOf(c));
+                    if (index >= 0) {
+                        node = targets.get(node).get(index);
+                    } else {
+                        int created = chars.size();
+                        chars.add(new StringBuilder());
+                        targets.add(new ArrayList<>());
+                        terminal.add(-1);
+                        chars.get(node).append(c);
+                        targets.get(node).add(created);
+                        node = created;
+                    }
+                }
+                terminal.set(node, w);
+            }
+
+            // Freeze edges into sorted arrays for binary search
+            int nodeCount = chars.size();
+            char[][] edgeChars = new char[nodeCount][];
+            int[][] edgeTargets = new int[nodeCount][];
+            for (int n = 0; n < nodeCount; n++) {
+                int degree = chars.get(n).length();
+                Integer[] order = new Integer[degree];
+                for (int i = 0; i < degree; i++) {
+                    order[i] = i;
+                }
+                final StringBuilder nodeChars = chars.get(n);
+                Arrays.sort(order, (a, b) -> Character.compare(nodeChars.charAt(a), nodeChars.charAt(b)));
+                edgeChars[n] = new char[degree];
+                edgeTargets[n] = new int[degree];
+                for (int i = 0; i < degree; i++) {
+                    edgeChars[n][i] = nodeChars.charAt(order[i]);
+                    edgeTargets[n][i] = targets.get(n).get(order[i]);
+                }
+            }
+
+            int[] keywordAt = new int[nodeCount];
+            int[] outputRules = new int[nodeCount];
+            for (int n = 0; n < nodeCount; n++) {
+                keywordAt[n] = terminal.get(n);
+                outputRules[n] = keywordAt[n] >= 0 ? wordRules[keywordAt[n]] : 0;
+            }
+
+            // Breadth-first failure links; outputs are inherited along the failure chain
+            int[] failure = new int[nodeCount];
+            int[] outputLink = new int[nodeCount];
+            Arrays.fill(outputLink, -1);
+            KeywordMatcher partial = new KeywordMatcher(edgeChars, edgeTargets, failure, outputRules,
+                    keywordAt, outputLink, words, wordRules);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int target : edgeTargets[ROOT]) {
+                failure[target] = ROOT;
+                queue.add(target);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < edgeChars[node].length; i++) {
+                    int target = edgeTargets[node][i];
+                    int fail = partial.step(failure[node], edgeChars[node][i]);
+                    failure[target] = fail;
+                    outputRules[target] |= outputRules[fail];
+                    outputLink[target] = keywordAt[fail] >= 0 ? fail : outputLink[fail];
+                    queue.add(target);
+                }
+            }
+            return partial;
+        }
+    }
+
+    private static String fold(String word) {
+        StringBuilder builder = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            builder.append(Character.toLowerCase(word.charAt(i)));
+        }
+        return builder.toString();
+    }
+}
@@ -2,42 +2,27 @@ package com.example.binbuddy.domain.service;
 
 import com.example.binbuddy.domain.model.PfandInfo;
 import com.example.binbuddy.domain.model.Product;
+import com.example.binbuddy.domain.service.ClassificationRules.Rules;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Service for detecting Pfand (deposit) information for products.
  */
 public class PfandService {
     
-    // Common Pfand barcode prefixes (German market)
-    private static final List<String> PFAND_BARCODE_PREFIXES = Arrays.asList(
-        "400", "401", "402", "403", "404", "405", "406", "407", "408", "409",
-        "410", "411", "412", "413", "414", "415", "416", "417", "418", "419",
-        "420", "421", "422", "423", "424", "425", "426", "427", "428", "429",
-        "430", "431", "432", "433", "434", "435", "436", "437", "438", "439"
-    );
-
-    // Pfand indicators in product categories
-    private static final List<String> PFAND_CATEGORIES = Arrays.asList(
-        "beers", "bier", "soft drinks", "softdrinks", "soft-drinks",
-        "beverages", "getränke", "drinks", "carbonated drinks"
-    );
-
-    // Pfand indicators in packaging
-    private static final List<String> PFAND_PACKAGING = Arrays.asList(
-        "bottle", "flasche", "can", "dose", "pfand", "deposit",
-        "einweg", "mehrweg", "returnable"
-    );
-
-    // Pfand symbols/indicators in labels
-    private static final List<String> PFAND_LABELS = Arrays.asList(
-        "pfand", "deposit", "pfandpflichtig", "pfandzeichen",
-        "einwegpfand", "mehrwegpfand"
-    );
+    // GS1 Germany company prefixes (400-440), the barcodes of the German deposit market.
+    // Bitset indexed by the numeric 3-digit GS1 prefix (0-999): 16 longs cover 1024 bits.
+    private static final int GS1_GERMANY_FIRST_PREFIX = 400;
+    private static final int GS1_GERMANY_LAST_PREFIX = 440;
+    private static final long[] PFAND_PREFIX_TABLE = new long[16];
+
+    static {
+        for (int prefix = GS1_GERMANY_FIRST_PREFIX; prefix <= GS1_GERMANY_LAST_PREFIX; prefix++) {
+            PFAND_PREFIX_TABLE[prefix >>> 6] |= 1L << (prefix & 63);
+        }
+    }
 
     /**
      * Check if a product has Pfand (deposit).
@@ -49,59 +34,30 @@ public class PfandService {
         if (product == null || product.getBarcode() == null) {
             return new PfandInfo(false, null, new ArrayList<>());
         }
+        return checkPfand(ProductFeatures.extract(product));
+    }
 
-        boolean hasPfand = false;
-        Double amount = null;
-
-        // Check barcode prefix (German EAN codes)
-        String barcode = product.getBarcode();
-        if (barcode.length() >= 3) {
-            String prefix = barcode.substring(0, 3);
-            if (PFAND_BARCODE_PREFIXES.contains(prefix)) {
-                hasPfand = true;
-            }
-        }
-
-        // Check categories
-        if (!hasPfand && product.getCategories() != null) {
-            for (String category : product.getCategories()) {
-                String lowerCategory = category.toLowerCase();
-                for (String pfandCategory : PFAND_CATEGORIES) {
-                    if (lowerCategory.contains(pfandCategory)) {
-                        hasPfand = true;
-                        break;
-                    }
-                }
-                if (hasPfand) break;
-            }
-        }
-
-        // Check packaging
-        if (!hasPfand && product.getPackaging() != null) {
-            String lowerPackaging = product.getPackaging().toLowerCase();
-            for (String pfandPackaging : PFAND_PACKAGING) {
-                if (lowerPackaging.contains(pfandPackaging)) {
-                    hasPfand = true;
-                    break;
-                }
-            }
+    /**
+     * Check Pfand (deposit) from already extracted features.
+     * Category, packaging and label indicators are rule bits of the shared keyword matcher
+     * (see ClassificationRules.Rules), so no product text is scanned here.
+     * 
+     * @param features Features of the product to check
+     * @return PfandInfo with detection result
+     */
+    public PfandInfo checkPfand(ProductFeatures features) {
+        Product product = features != null ? features.getProduct() : null;
+        if (product == null || product.getBarcode() == null) {
+            return new PfandInfo(false, null, new ArrayList<>());
         }
 
-        // Check labels
-        if (!hasPfand && product.getLabels() != null) {
-            String lowerLabels = product.getLabels().toLowerCase();
-            for (String pfandLabel : PFAND_LABELS) {
-                if (lowerLabels.contains(pfandLabel)) {
-                    hasPfand = true;
-                    break;
-                }
-            }
-        }
+        boolean hasPfand = isPfandPrefix(features.getBarcodePrefix())        // German EAN codes
+                || (features.getCategoryRules() & Rules.DEPOSIT_CATEGORY) != 0
+                || (features.getPackagingRules() & Rules.DEPOSIT_PACKAGING) != 0
+                || (features.getLabelRules() & Rules.PFAND_MARKER) != 0;
 
         // Determine Pfand amount based on product characteristics
-        if (hasPfand) {
-            amount = determinePfandAmount(product);
-        }
+        Double amount = hasPfand ? determinePfandAmount(features) : null;
 
         // Return locations would be fetched from a location service
         // For now, return empty list
@@ -113,36 +69,26 @@ public class PfandService {
     /**
      * Determine Pfand amount based on product characteristics.
      * 
-     * @param product Product to analyze
+     * @param features Features of the product to analyze
      * @return Pfand amount in EUR, or null if cannot be determined
      */
-    private Double determinePfandAmount(Product product) {
+    private Double determinePfandAmount(ProductFeatures features) {
         // Default amounts in Germany:
         // - 0.08 EUR: Einweg (single-use) bottles and cans
         // - 0.15 EUR: Mehrweg (reusable) beer bottles
         // - 0.25 EUR: Mehrweg (reusable) soft drink bottles
 
-        String packaging = product.getPackaging() != null ? product.getPackaging().toLowerCase() : "";
-        String categories = product.getCategories() != null ? String.join(", ", product.getCategories()).toLowerCase() : "";
-
         // Check for Mehrweg (reusable)
-        if (packaging.contains("mehrweg") || packaging.contains("reusable")) {
+        if (features.isReusable()) {
             // Check if it's beer
-            if (categories.contains("beer") || categories.contains("bier") || 
-                product.getName() != null && product.getName().toLowerCase().contains("bier")) {
+            if (((features.getCategoryRules() | features.getNameRules()) & Rules.BEER) != 0) {
                 return 0.15; // Beer bottles
             } else {
                 return 0.25; // Soft drink bottles
             }
         }
 
-        // Check for Einweg (single-use) or cans
-        if (packaging.contains("einweg") || packaging.contains("can") || 
-            packaging.contains("dose") || packaging.contains("single-use")) {
-            return 0.08; // Single-use bottles and cans
-        }
-
-        // Default to Einweg amount if Pfand is detected but type unclear
+        // Einweg (single-use) bottles and cans, and the default if the type is unclear
         return 0.08;
     }
 
@@ -153,11 +99,32 @@ public class PfandService {
      * @return true if barcode matches Pfand pattern
      */
     public boolean isPfandBarcode(String barcode) {
+        // Constant time and allocation-free: called for every decoded scanner frame
+        return isPfandPrefix(gs1Prefix(barcode));
+    }
+
+    private static boolean isPfandPrefix(int prefix) {
+        return prefix >= 0 && (PFAND_PREFIX_TABLE[prefix >>> 6] & (1L << (prefix & 63))) != 0;
+    }
+
+    /**
+     * Parse the 3-digit GS1 prefix of a barcode without allocating.
+     *
+     * @return Prefix 0-999, or -1 if the barcode is shorter than 3 characters or not numeric there
+     */
+    static int gs1Prefix(CharSequence barcode) {
         if (barcode == null || barcode.length() < 3) {
-            return false;
+            return -1;
+        }
+        int prefix = 0;
+        for (int i = 0; i < 3; i++) {
+            int digit = barcode.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            prefix = prefix * 10 + digit;
         }
-        String prefix = barcode.substring(0, 3);
-        return PFAND_BARCODE_PREFIXES.contains(prefix);
+        return prefix;
     }
 
     /**
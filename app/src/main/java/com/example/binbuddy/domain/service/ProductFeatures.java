@@ -0,0 +1,132 @@
+package com.example.binbuddy.domain.service;
+
+import com.example.binbuddy.domain.model.Product;
+import com.example.binbuddy.domain.service.ClassificationRules.Rules;
+
+import java.util.List;
+
+/**
+ * Keyword features of a product, extracted in a single pass over its text fields.
+ *
+ * Packaging, labels, categories and name are each scanned once by the compiled keyword matcher;
+ * the resulting {@link Rules} bits of all four fields are packed into one long. PfandService and
+ * WasteClassificationService both decide on these bits, so a product can be classified and
+ * checked for deposit without scanning or lower-casing its text again.
+ */
+public final class ProductFeatures {
+
+    // Bit offset of each field's rule bits within the packed mask
+    private static final int PACKAGING_SHIFT = 0;
+    private static final int LABELS_SHIFT = 16;
+    private static final int CATEGORIES_SHIFT = 32;
+    private static final int NAME_SHIFT = 48;
+    private static final long FIELD_MASK = 0xFFFFL;
+
+    private final Product product;
+    private final long rules;
+    private final boolean hasPackaging;
+    private final int barcodePrefix;
+
+    private ProductFeatures(Product product, long rules, boolean hasPackaging, int barcodePrefix) {
+        this.product = product;
+        this.rules = rules;
+        this.hasPackaging = hasPackaging;
+        this.barcodePrefix = barcodePrefix;
+    }
+
+    /**
+     * Extract the features of a product with the shared classification rules.
+     *
+     * @param product Product to analyze, may be null
+     */
+    public static ProductFeatures extract(Product product) {
+        return extract(product, ClassificationRules.KEYWORD_MATCHER);
+    }
+
+    static ProductFeatures extract(Product product, KeywordMatcher matcher) {
+        if (product == null) {
+            return new ProductFeatures(null, 0L, false, -1);
+        }
+
+        String packaging = product.getPackaging();
+        int categoryRules = 0;
+        List<String> categories = product.getCategories();
+        if (categories != null) {
+            for (String category : categories) {
+                categoryRules |= matcher.matchRules(category);
+            }
+        }
+
+        long rules = pack(matcher.matchRules(packaging), PACKAGING_SHIFT)
+                | pack(matcher.matchRules(product.getLabels()), LABELS_SHIFT)
+                | pack(categoryRules, CATEGORIES_SHIFT)
+                | pack(matcher.matchRules(product.getName()), NAME_SHIFT);
+        return new ProductFeatures(product, rules,
+                packaging != null && !packaging.isEmpty(),
+                PfandService.gs1Prefix(product.getBarcode()));
+    }
+
+    private static long pack(int fieldRules, int shift) {
+        return (fieldRules & FIELD_MASK) << shift;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Rule bits of all fields, 16 bits per field (packaging, labels, categories, name).
+     */
+    public long getRules() {
+        return rules;
+    }
+
+    public int getPackagingRules() {
+        return (int) ((rules >>> PACKAGING_SHIFT) & FIELD_MASK);
+    }
+
+    public int getLabelRules() {
+        return (int) ((rules >>> LABELS_SHIFT) & FIELD_MASK);
+    }
+
+    public int getCategoryRules() {
+        return (int) ((rules >>> CATEGORIES_SHIFT) & FIELD_MASK);
+    }
+
+    public int getNameRules() {
+        return (int) ((rules >>> NAME_SHIFT) & FIELD_MASK);
+    }
+
+    /**
+     * Whether the product has non-empty packaging text.
+     */
+    public boolean hasPackaging() {
+        return hasPackaging;
+    }
+
+    /**
+     * Numeric 3-digit GS1 prefix of the barcode, or -1 if there is none.
+     */
+    public int getBarcodePrefix() {
+        return barcodePrefix;
+    }
+
+    /**
+     * Pfand/deposit marker in packaging or labels.
+     */
+    public boolean hasDepositMarker() {
+        return ((getPackagingRules() | getLabelRules()) & Rules.PFAND_MARKER) != 0;
+    }
+
+    public boolean isBeverage() {
+        return (getCategoryRules() & Rules.BEVERAGE) != 0;
+    }
+
+    public boolean isReusable() {
+        return (getPackagingRules() & Rules.REUSABLE) != 0;
+    }
+
+    public boolean isSingleUse() {
+        return (getPackagingRules() & Rules.SINGLE_USE) != 0;
+    }
+}
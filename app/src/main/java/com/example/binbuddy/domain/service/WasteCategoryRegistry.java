@@ -0,0 +1,127 @@
+package com.example.binbuddy.domain.service;
+
+import com.example.binbuddy.domain.model.WasteCategory;
+import com.example.binbuddy.domain.service.ClassificationRules.CategoryIds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical waste categories used by classification, keyed by ClassificationRules.CategoryIds.
+ *
+ * WasteCategory is immutable, so every lookup hands out the same instance; classification
+ * allocates nothing for its result and results can be compared by identity.
+ */
+public final class WasteCategoryRegistry {
+
+    public static final WasteCategory PFAND = new WasteCategory.Builder()
+            .setId(CategoryIds.PFAND)
+            .setNameDe("Pfand")
+            .setNameEn("Deposit")
+            .setDescriptionDe("Dieses Produkt hat Pfand. Bitte zurückgeben.")
+            .setDescriptionEn("This product has a deposit. Please return it.")
+            .setIconName("ic_pfand")
+            .setColorHex("#FF9800")
+            .build();
+
+    public static final WasteCategory GELBE_TONNE = new WasteCategory.Builder()
+            .setId(CategoryIds.GELBE_TONNE)
+            .setNameDe("Gelbe Tonne")
+            .setNameEn("Yellow Bin")
+            .setDescriptionDe("Verpackungen aus Kunststoff, Metall oder Verbundstoffen gehören in die Gelbe Tonne.")
+            .setDescriptionEn("Packaging made of plastic, metal or composite materials belongs in the yellow bin.")
+            .setIconName("ic_gelbe_tonne")
+            .setColorHex("#FFEB3B")
+            .build();
+
+    public static final WasteCategory GLAS = new WasteCategory.Builder()
+            .setId(CategoryIds.GLAS)
+            .setNameDe("Glas")
+            .setNameEn("Glass")
+            .setDescriptionDe("Glasflaschen und -behälter gehören in den Glascontainer. Bitte nach Farben trennen.")
+            .setDescriptionEn("Glass bottles and containers belong in the glass container. Please separate by color.")
+            .setIconName("ic_glas")
+            .setColorHex("#2196F3")
+            .build();
+
+    public static final WasteCategory PAPIER = new WasteCategory.Builder()
+            .setId(CategoryIds.PAPIER)
+            .setNameDe("Papier")
+            .setNameEn("Paper")
+            .setDescriptionDe("Papier und Pappe gehören in die Papiertonne oder den Altpapiercontainer.")
+            .setDescriptionEn("Paper and cardboard belong in the paper bin or paper recycling container.")
+            .setIconName("ic_papier")
+            .setColorHex("#4CAF50")
+            .build();
+
+    public static final WasteCategory BIO = new WasteCategory.Builder()
+            .setId(CategoryIds.BIO)
+            .setNameDe("Bio")
+            .setNameEn("Organic")
+            .setDescriptionDe("Biologisch abbaubare Abfälle gehören in die Biotonne.")
+            .setDescriptionEn("Biodegradable waste belongs in the organic waste bin.")
+            .setIconName("ic_bio")
+            .setColorHex("#8BC34A")
+            .build();
+
+    public static final WasteCategory RESTMUELL = new WasteCategory.Builder()
+            .setId(CategoryIds.RESTMUELL)
+            .setNameDe("Restmüll")
+            .setNameEn("Residual Waste")
+            .setDescriptionDe("Nicht recycelbare Abfälle gehören in die Restmülltonne.")
+            .setDescriptionEn("Non-recyclable waste belongs in the residual waste bin.")
+            .setIconName("ic_restmuell")
+            .setColorHex("#757575")
+            .build();
+
+    private static final Map<String, WasteCategory> CATEGORIES_BY_ID;
+    private static final List<WasteCategory> ALL_CATEGORIES;
+
+    static {
+        Map<String, WasteCategory> categories = new LinkedHashMap<>();
+        for (WasteCategory category : new WasteCategory[]{PFAND, GELBE_TONNE, GLAS, PAPIER, BIO, RESTMUELL}) {
+            categories.put(category.getId(), category);
+        }
+        CATEGORIES_BY_ID = Collections.unmodifiableMap(categories);
+        ALL_CATEGORIES = Collections.unmodifiableList(new ArrayList<>(categories.values()));
+    }
+
+    private WasteCategoryRegistry() {
+        // Static registry
+    }
+
+    /**
+     * Get the canonical category for an id.
+     *
+     * @param id Category id (see ClassificationRules.CategoryIds)
+     * @return Canonical instance, or null if the id is unknown
+     */
+    public static WasteCategory get(String id) {
+        return id != null ? CATEGORIES_BY_ID.get(id) : null;
+    }
+
+    /**
+     * Get the canonical category for an id, falling back to residual waste.
+     */
+    public static WasteCategory getOrDefault(String id) {
+        WasteCategory category = get(id);
+        return category != null ? category : getDefault();
+    }
+
+    /**
+     * Default category (Restmüll - Residual waste).
+     */
+    public static WasteCategory getDefault() {
+        return RESTMUELL;
+    }
+
+    /**
+     * All canonical categories, in registry order.
+     */
+    public static List<WasteCategory> getAll() {
+        return ALL_CATEGORIES;
+    }
+}
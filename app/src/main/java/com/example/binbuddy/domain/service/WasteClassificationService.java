@@ -2,16 +2,41 @@ package com.example.binbuddy.domain.service;
 
 import com.example.binbuddy.domain.model.Product;
 import com.example.binbuddy.domain.model.WasteCategory;
+import com.example.binbuddy.domain.service.ClassificationRules.Rules;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Service for determining the waste category of a product based on its properties.
  * Uses classification rules to map product data to appropriate waste categories.
+ * Results are the canonical instances of WasteCategoryRegistry.
  */
 public class WasteClassificationService {
 
+    // Below this size a batch is classified on the caller thread; one product takes microseconds
+    static final int PARALLEL_THRESHOLD = 64;
+    private static final int MAX_PARALLELISM =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static volatile ExecutorService batchExecutor;
+
+    private final KeywordMatcher keywordMatcher;
+
+    public WasteClassificationService() {
+        this(ClassificationRules.KEYWORD_MATCHER);
+    }
+
+    WasteClassificationService(KeywordMatcher keywordMatcher) {
+        this.keywordMatcher = keywordMatcher;
+    }
+
     /**
      * Determine the waste category for a given product.
      * 
@@ -20,74 +45,151 @@ public class WasteClassificationService {
      */
     public WasteCategory determineWasteCategory(Product product) {
         if (product == null) {
-            return getDefaultCategory();
+            return WasteCategoryRegistry.getDefault();
         }
+        return determineWasteCategory(ProductFeatures.extract(product, keywordMatcher));
+    }
+
+    /**
+     * Determine the waste category from already extracted features.
+     * The checks below only test rule bits (see ClassificationRules.Rules); use this overload
+     * when the same product is also checked by PfandService.
+     * 
+     * @param features Features of the product to classify
+     * @return The appropriate WasteCategory
+     */
+    public WasteCategory determineWasteCategory(ProductFeatures features) {
+        if (features == null || features.getProduct() == null) {
+            return WasteCategoryRegistry.getDefault();
+        }
+
+        int packagingRules = features.getPackagingRules();
+        int labelRules = features.getLabelRules();
+        int categoryRules = features.getCategoryRules();
 
         // Check for Pfand first (deposit bottles)
-        WasteCategory pfandCategory = checkPfand(product);
+        WasteCategory pfandCategory = checkPfand(features);
         if (pfandCategory != null) {
             return pfandCategory;
         }
 
         // Check packaging type
-        WasteCategory packagingCategory = checkPackaging(product);
-        if (packagingCategory != null) {
-            return packagingCategory;
+        if (features.hasPackaging()) {
+            WasteCategory packagingCategory = checkPackaging(packagingRules);
+            if (packagingCategory != null) {
+                return packagingCategory;
+            }
         }
 
         // Check categories
-        WasteCategory categoryMatch = checkCategories(product);
+        WasteCategory categoryMatch = checkCategories(categoryRules, packagingRules);
         if (categoryMatch != null) {
             return categoryMatch;
         }
 
         // Check labels
-        WasteCategory labelMatch = checkLabels(product);
+        WasteCategory labelMatch = checkLabels(labelRules);
         if (labelMatch != null) {
             return labelMatch;
         }
 
         // Default to residual waste
-        return getDefaultCategory();
+        return WasteCategoryRegistry.getDefault();
     }
 
     /**
-     * Check if product has Pfand (deposit)
+     * Classify a batch of products, e.g. a search page or the cached catalog.
+     * Large batches are split into chunks and classified with bounded parallelism
+     * (at most four threads, one of them the caller).
+     * 
+     * @param products Products to classify (null entries get the default category)
+     * @return Categories in the same order as the products
      */
-    private WasteCategory checkPfand(Product product) {
-        String packaging = product.getPackaging() != null 
-                ? product.getPackaging().toLowerCase(Locale.getDefault()) 
-                : "";
-        String labels = product.getLabels() != null 
-                ? product.getLabels().toLowerCase(Locale.getDefault()) 
-                : "";
+    public List<WasteCategory> classifyAll(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return Collections.emptyList();
+        }
 
+        int size = products.size();
+        WasteCategory[] results = new WasteCategory[size];
+        if (size < PARALLEL_THRESHOLD || MAX_PARALLELISM == 1) {
+            classifyRange(products, results, 0, size);
+            return Collections.unmodifiableList(Arrays.asList(results));
+        }
+
+        int chunkSize = (size + MAX_PARALLELISM - 1) / MAX_PARALLELISM;
+        List<Future<?>> futures = new ArrayList<>(MAX_PARALLELISM - 1);
+        ExecutorService executor = getBatchExecutor();
+        for (int start = chunkSize; start < size; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(size, start + chunkSize);
+            futures.add(executor.submit(() -> classifyRange(products, results, from, to)));
+        }
+        // The caller classifies the first chunk itself instead of idling
+        classifyRange(products, results, 0, Math.min(size, chunkSize));
+
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                // Filled in below
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < size; i++) {
+            if (results[i] == null) {
+                // Chunk did not finish (failure or interrupt): classify the rest here
+                results[i] = determineWasteCategory(products.get(i));
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private void classifyRange(List<Product> products, WasteCategory[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = determineWasteCategory(products.get(i));
+        }
+    }
+
+    private static ExecutorService getBatchExecutor() {
+        ExecutorService executor = batchExecutor;
+        if (executor == null) {
+            synchronized (WasteClassificationService.class) {
+                executor = batchExecutor;
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(MAX_PARALLELISM - 1, runnable -> {
+                        Thread thread = new Thread(runnable, "waste-classification");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    batchExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Check if product has Pfand (deposit)
+     */
+    private WasteCategory checkPfand(ProductFeatures features) {
         // Check for Pfand indicators
-        if (packaging.contains("pfand") || 
-            packaging.contains("deposit") ||
-            labels.contains("pfand") ||
-            labels.contains("deposit")) {
-            return createPfandCategory();
+        if (features.hasDepositMarker()) {
+            return WasteCategoryRegistry.PFAND;
         }
 
         // Check barcode patterns for Pfand (common German Pfand barcodes start with specific prefixes)
-        String barcode = product.getBarcode();
-        if (barcode != null && barcode.length() >= 3) {
-            String prefix = barcode.substring(0, 3);
-            // Common Pfand bottle prefixes (this is a simplified check)
-            if (prefix.equals("400") || prefix.equals("401") || prefix.equals("402")) {
-                // Additional check: Pfand bottles are usually in specific categories
-                List<String> categories = product.getCategories();
-                if (categories != null) {
-                    for (String category : categories) {
-                        String catLower = category.toLowerCase(Locale.getDefault());
-                        if (catLower.contains("getränk") || 
-                            catLower.contains("drink") ||
-                            catLower.contains("beverage")) {
-                            return createPfandCategory();
-                        }
-                    }
-                }
+        // Common Pfand bottle prefixes (this is a simplified check)
+        int prefix = features.getBarcodePrefix();
+        if (prefix >= 400 && prefix <= 402) {
+            // Additional check: Pfand bottles are usually in specific categories
+            if (features.isBeverage()) {
+                return WasteCategoryRegistry.PFAND;
             }
         }
 
@@ -97,58 +199,26 @@ public class WasteClassificationService {
     /**
      * Check packaging type for waste category
      */
-    private WasteCategory checkPackaging(Product product) {
-        String packaging = product.getPackaging() != null 
-                ? product.getPackaging().toLowerCase(Locale.getDefault()) 
-                : "";
-
-        if (packaging.isEmpty()) {
-            return null;
-        }
-
-        // Plastic packaging -> Gelbe Tonne (Yellow bin)
-        if (packaging.contains("plastic") || 
-            packaging.contains("kunststoff") ||
-            packaging.contains("pet") ||
-            packaging.contains("pe") ||
-            packaging.contains("pp") ||
-            packaging.contains("ps") ||
-            packaging.contains("pvc") ||
-            packaging.contains("aluminium") ||
-            packaging.contains("aluminum") ||
-            packaging.contains("metall") ||
-            packaging.contains("metal") ||
-            packaging.contains("dose") ||
-            packaging.contains("can") ||
-            packaging.contains("tetra") ||
-            packaging.contains("karton") && packaging.contains("getränk")) {
-            return createGelbeTonneCategory();
+    private WasteCategory checkPackaging(int packagingRules) {
+        // Plastic, metal or beverage carton packaging -> Gelbe Tonne (Yellow bin)
+        if ((packagingRules & Rules.PACKAGING_YELLOW_BIN) != 0
+                || ((packagingRules & Rules.KARTON) != 0 && (packagingRules & Rules.DRINK_PACKAGING) != 0)) {
+            return WasteCategoryRegistry.GELBE_TONNE;
         }
 
         // Glass -> Glas (Glass bin, separate by color)
-        if (packaging.contains("glass") || 
-            packaging.contains("glas") ||
-            packaging.contains("flasche") && packaging.contains("glas")) {
-            return createGlassCategory();
+        if ((packagingRules & Rules.PACKAGING_GLASS) != 0) {
+            return WasteCategoryRegistry.GLAS;
         }
 
         // Paper/Cardboard -> Papier
-        if (packaging.contains("paper") || 
-            packaging.contains("papier") ||
-            packaging.contains("cardboard") ||
-            packaging.contains("pappe") ||
-            packaging.contains("karton") ||
-            packaging.contains("carton")) {
-            return createPaperCategory();
+        if ((packagingRules & Rules.PACKAGING_PAPER) != 0) {
+            return WasteCategoryRegistry.PAPIER;
         }
 
         // Organic/Biodegradable -> Bio
-        if (packaging.contains("bio") ||
-            packaging.contains("organic") ||
-            packaging.contains("biologisch") ||
-            packaging.contains("kompostierbar") ||
-            packaging.contains("compostable")) {
-            return createBioCategory();
+        if ((packagingRules & Rules.PACKAGING_ORGANIC) != 0) {
+            return WasteCategoryRegistry.BIO;
         }
 
         return null;
@@ -157,39 +227,16 @@ public class WasteClassificationService {
     /**
      * Check product categories for waste classification
      */
-    private WasteCategory checkCategories(Product product) {
-        List<String> categories = product.getCategories();
-        if (categories == null || categories.isEmpty()) {
-            return null;
+    private WasteCategory checkCategories(int categoryRules, int packagingRules) {
+        // Organic/Bio products, only if packaging is also organic/biodegradable
+        if ((categoryRules & Rules.ORGANIC_CATEGORY) != 0
+                && (packagingRules & Rules.PACKAGING_ORGANIC) != 0) {
+            return WasteCategoryRegistry.BIO;
         }
 
-        for (String category : categories) {
-            String catLower = category.toLowerCase(Locale.getDefault());
-
-            // Organic/Bio products
-            if (catLower.contains("bio") ||
-                catLower.contains("organic") ||
-                catLower.contains("obst") ||
-                catLower.contains("gemüse") ||
-                catLower.contains("fruit") ||
-                catLower.contains("vegetable")) {
-                // Only if packaging is also organic/biodegradable
-                String packaging = product.getPackaging() != null 
-                        ? product.getPackaging().toLowerCase(Locale.getDefault()) 
-                        : "";
-                if (packaging.contains("bio") || packaging.contains("organic")) {
-                    return createBioCategory();
-                }
-            }
-
-            // Beverages in glass bottles
-            if ((catLower.contains("getränk") || 
-                 catLower.contains("drink") ||
-                 catLower.contains("beverage")) &&
-                product.getPackaging() != null &&
-                product.getPackaging().toLowerCase(Locale.getDefault()).contains("glas")) {
-                return createGlassCategory();
-            }
+        // Beverages in glass bottles
+        if ((categoryRules & Rules.BEVERAGE) != 0 && (packagingRules & Rules.PACKAGING_GLASS) != 0) {
+            return WasteCategoryRegistry.GLAS;
         }
 
         return null;
@@ -198,121 +245,19 @@ public class WasteClassificationService {
     /**
      * Check labels for waste classification hints
      */
-    private WasteCategory checkLabels(Product product) {
-        String labels = product.getLabels() != null 
-                ? product.getLabels().toLowerCase(Locale.getDefault()) 
-                : "";
-
-        if (labels.isEmpty()) {
-            return null;
-        }
-
+    private WasteCategory checkLabels(int labelRules) {
         // Bio/Organic labels
-        if (labels.contains("bio") ||
-            labels.contains("organic") ||
-            labels.contains("biologisch")) {
-            return createBioCategory();
+        if ((labelRules & Rules.ORGANIC_LABEL) != 0) {
+            return WasteCategoryRegistry.BIO;
         }
 
         // Recycling labels
-        if (labels.contains("recycling") ||
-            labels.contains("recycelbar") ||
-            labels.contains("recyclable")) {
+        if ((labelRules & Rules.RECYCLING_LABEL) != 0) {
             // Could be Gelbe Tonne, but need more context
             // Default to Gelbe Tonne for recyclable items
-            return createGelbeTonneCategory();
+            return WasteCategoryRegistry.GELBE_TONNE;
         }
 
         return null;
     }
-
-    /**
-     * Create Pfand category
-     */
-    private WasteCategory createPfandCategory() {
-        return new WasteCategory.Builder()
-                .setId("pfand")
-                .setNameDe("Pfand")
-                .setNameEn("Deposit")
-                .setDescriptionDe("Dieses Produkt hat Pfand. Bitte zurückgeben.")
-                .setDescriptionEn("This product has a deposit. Please return it.")
-                .setIconName("ic_pfand")
-                .setColorHex("#FF9800")
-                .build();
-    }
-
-    /**
-     * Create Gelbe Tonne (Yellow bin) category
-     */
-    private WasteCategory createGelbeTonneCategory() {
-        return new WasteCategory.Builder()
-                .setId("gelbe_tonne")
-                .setNameDe("Gelbe Tonne")
-                .setNameEn("Yellow Bin")
-                .setDescriptionDe("Verpackungen aus Kunststoff, Metall oder Verbundstoffen gehören in die Gelbe Tonne.")
-                .setDescriptionEn("Packaging made of plastic, metal or composite materials belongs in the yellow bin.")
-                .setIconName("ic_gelbe_tonne")
-                .setColorHex("#FFEB3B")
-                .build();
-    }
-
-    /**
-     * Create Glass category
-     */
-    private WasteCategory createGlassCategory() {
-        return new WasteCategory.Builder()
-                .setId("glas")
-                .setNameDe("Glas")
-                .setNameEn("Glass")
-                .setDescriptionDe("Glasflaschen und -behälter gehören in den Glascontainer. Bitte nach Farben trennen.")
-                .setDescriptionEn("Glass bottles and containers belong in the glass container. Please separate by color.")
-                .setIconName("ic_glas")
-                .setColorHex("#2196F3")
-                .build();
-    }
-
-    /**
-     * Create Paper category
-     */
-    private WasteCategory createPaperCategory() {
-        return new WasteCategory.Builder()
-                .setId("papier")
-                .setNameDe("Papier")
-                .setNameEn("Paper")
-                .setDescriptionDe("Papier und Pappe gehören in die Papiertonne oder den Altpapiercontainer.")
-                .setDescriptionEn("Paper and cardboard belong in the paper bin or paper recycling container.")
-                .setIconName("ic_papier")
-                .setColorHex("#4CAF50")
-                .build();
-    }
-
-    /**
-     * Create Bio (Organic) category
-     */
-    private WasteCategory createBioCategory() {
-        return new WasteCategory.Builder()
-                .setId("bio")
-                .setNameDe("Bio")
-                .setNameEn("Organic")
-                .setDescriptionDe("Biologisch abbaubare Abfälle gehören in die Biotonne.")
-                .setDescriptionEn("Biodegradable waste belongs in the organic waste bin.")
-                .setIconName("ic_bio")
-                .setColorHex("#8BC34A")
-                .build();
-    }
-
-    /**
-     * Get default category (Restmüll - Residual waste)
-     */
-    private WasteCategory getDefaultCategory() {
-        return new WasteCategory.Builder()
-                .setId("restmuell")
-                .setNameDe("Restmüll")
-                .setNameEn("Residual Waste")
-                .setDescriptionDe("Nicht recycelbare Abfälle gehören in die Restmülltonne.")
-                .setDescriptionEn("Non-recyclable waste belongs in the residual waste bin.")
-                .setIconName("ic_restmuell")
-                .setColorHex("#757575")
-                .build();
-    }
 }
@@ -0,0 +1,31 @@
+package com.example.binbuddy.domain.usecase;
+
+import com.example.binbuddy.domain.repository.ScanHistoryRepository;
+
+/**
+ * Use case for deleting a scan history entry.
+ * Encapsulates the business logic for removing recorded scans.
+ */
+public class DeleteScanHistoryUseCase {
+
+    private final ScanHistoryRepository scanHistoryRepository;
+
+    public DeleteScanHistoryUseCase(ScanHistoryRepository scanHistoryRepository) {
+        this.scanHistoryRepository = scanHistoryRepository;
+    }
+
+    /**
+     * Execute the use case to delete a scan from history.
+     * 
+     * @param id ID of the scan history entry
+     */
+    public void execute(long id) {
+        if (id <= 0) {
+            android.util.Log.w("DeleteScanHistoryUseCase", "Attempted to delete scan with invalid id");
+            return;
+        }
+
+        // Delete the scan via repository
+        scanHistoryRepository.deleteScan(id);
+    }
+}
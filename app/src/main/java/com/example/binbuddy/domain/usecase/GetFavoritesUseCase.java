@@ -20,20 +20,11 @@ public class GetFavoritesUseCase {
     }
 
     /**
-     * Execute the use case to get all favorite products.
+     * Execute the use case to get all favorite products, most recently added first.
      * 
      * @return Flow emitting list of favorite products
      */
     public Flow<List<Product>> execute() {
-        // TODO: Implement once Flow is properly set up
-        // This will:
-        // 1. Call favoriteProductRepository.getFavorites()
-        // 2. Optionally sort by timestamp (newest first)
-        // 3. Return Flow<List<Product>>
-        
-        throw new UnsupportedOperationException(
-            "GetFavoritesUseCase.execute() not yet fully implemented. " +
-            "Requires kotlinx-coroutines-core for Flow support."
-        );
+        return favoriteProductRepository.getFavorites();
     }
 }
@@ -20,21 +20,20 @@ public class GetScanHistoryUseCase {
     }
 
     /**
-     * Execute the use case to get all scan history.
+     * Execute the use case to get the scan history, newest first.
      * 
-     * @return Flow emitting list of scan history entries
+     * @return Flow emitting the loaded pages of scan history entries
      */
     public Flow<List<ScanHistory>> execute() {
-        // TODO: Implement once Flow is properly set up
-        // This will:
-        // 1. Call scanHistoryRepository.getScanHistory()
-        // 2. Optionally sort by timestamp (newest first)
-        // 3. Return Flow<List<ScanHistory>>
-        
-        throw new UnsupportedOperationException(
-            "GetScanHistoryUseCase.execute() not yet fully implemented. " +
-            "Requires kotlinx-coroutines-core for Flow support."
-        );
+        // Newest first; further pages are appended via loadMore()
+        return scanHistoryRepository.getScanHistory();
+    }
+
+    /**
+     * Load the next page of older scans into the flow returned by {@link #execute()}.
+     */
+    public void loadMore() {
+        scanHistoryRepository.loadMoreScanHistory();
     }
 
     /**
@@ -48,14 +47,6 @@ public class GetScanHistoryUseCase {
             limit = 10; // Default limit
         }
 
-        // TODO: Implement once Flow is properly set up
-        // This will:
-        // 1. Call scanHistoryRepository.getRecentScans(limit)
-        // 2. Return Flow<List<ScanHistory>>
-        
-        throw new UnsupportedOperationException(
-            "GetScanHistoryUseCase.execute(limit) not yet fully implemented. " +
-            "Requires kotlinx-coroutines-core for Flow support."
-        );
+        return scanHistoryRepository.getRecentScans(limit);
     }
 }
@@ -15,12 +15,18 @@ import dagger.hilt.android.AndroidEntryPoint;
 
 import com.example.binbuddy.R;
 import com.example.binbuddy.databinding.ActivityMainBinding;
+import com.example.binbuddy.ui.scanner.ScanningEngine;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
+import javax.inject.Inject;
+
 @AndroidEntryPoint
 public class MainActivity extends AppCompatActivity {
 
+    @Inject
+    ScanningEngine scanningEngine;
+
     private ActivityMainBinding binding;
     private NavController navController;
 
@@ -32,6 +38,9 @@ public class MainActivity extends AppCompatActivity {
 
         setupNavigation();
         setupFAB();
+
+        // Load the decoder and camera provider now, not when the scan tab is first opened
+        scanningEngine.warmUp();
     }
 
     private void setupNavigation() {
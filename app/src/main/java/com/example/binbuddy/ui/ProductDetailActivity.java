@@ -18,6 +18,8 @@ import com.example.binbuddy.domain.model.PfandInfo;
 import com.example.binbuddy.domain.model.Product;
 import com.example.binbuddy.domain.model.WasteCategory;
 import com.example.binbuddy.domain.service.PfandService;
+import com.example.binbuddy.domain.service.ProductFeatures;
+import com.example.binbuddy.domain.service.WasteCategoryRegistry;
 import com.example.binbuddy.domain.service.WasteClassificationService;
 import com.example.binbuddy.ui.viewmodel.ProductDetailViewModel;
 import com.caverock.androidsvg.SVG;
@@ -25,6 +27,9 @@ import java.util.Locale;
 import java.util.ArrayList;
 import java.util.List;
 
+import dagger.hilt.android.AndroidEntryPoint;
+
+@AndroidEntryPoint
 public class ProductDetailActivity extends AppCompatActivity {
 
     public static final String EXTRA_BARCODE = "barcode";
@@ -122,10 +127,17 @@ public class ProductDetailActivity extends AppCompatActivity {
         displayGreenScore(product);
         displayEnvironment(product.getEnvironmentInfo());
 
-        WasteCategory category = wasteClassificationService.determineWasteCategory(product);
+        // One keyword pass over the product text, shared by classification and the Pfand check
+        ProductFeatures features = ProductFeatures.extract(product);
+
+        // Stored classification is a lookup; classify only products that were never stored
+        WasteCategory category = WasteCategoryRegistry.get(product.getWasteCategoryId());
+        if (category == null) {
+            category = wasteClassificationService.determineWasteCategory(features);
+        }
         displayWasteCategory(category);
 
-        PfandInfo pfandInfo = pfandService.checkPfand(product);
+        PfandInfo pfandInfo = pfandService.checkPfand(features);
         displayPfandInfo(pfandInfo);
     }
 
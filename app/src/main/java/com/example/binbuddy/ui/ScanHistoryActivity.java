@@ -6,41 +6,50 @@ import android.text.TextUtils;
 import android.view.View;
 import android.widget.LinearLayout;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.binbuddy.R;
 import com.example.binbuddy.domain.model.ScanHistory;
+import com.example.binbuddy.ui.viewmodel.ScanHistoryViewModel;
 import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.snackbar.BaseTransientBottomBar;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.util.ArrayList;
-import java.util.List;
+import dagger.hilt.android.AndroidEntryPoint;
 
 /**
  * Activity to display scan history.
  * Shows a list of previously scanned products with swipe-to-delete functionality.
+ * Older scans are loaded page by page while scrolling.
  */
+@AndroidEntryPoint
 public class ScanHistoryActivity extends AppCompatActivity {
 
+    // Load the next page when this many items are left below the last visible one
+    private static final int LOAD_MORE_THRESHOLD = 10;
+
     private RecyclerView rvScanHistory;
     private LinearLayout emptyState;
     private ScanHistoryAdapter adapter;
-    
-    // Temporary in-memory storage (will be replaced with ViewModel/Repository later)
-    private List<ScanHistory> scanHistoryList;
+    private ScanHistoryViewModel viewModel;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_scan_history);
 
+        viewModel = new ViewModelProvider(this).get(ScanHistoryViewModel.class);
+
         initViews();
         setupRecyclerView();
         setupSwipeToDelete();
-        loadScanHistory();
+        setupObservers();
+        viewModel.loadHistory();
     }
 
     private void initViews() {
@@ -59,8 +68,28 @@ public class ScanHistoryActivity extends AppCompatActivity {
             navigateToProductDetailIfValid(scanHistory != null ? scanHistory.getBarcode() : null);
         });
 
-        rvScanHistory.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        rvScanHistory.setLayoutManager(layoutManager);
         rvScanHistory.setAdapter(adapter);
+        rvScanHistory.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) {
+                    return;
+                }
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - 1 - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMore();
+                }
+            }
+        });
+    }
+
+    private void setupObservers() {
+        viewModel.getScanHistory().observe(this, history -> {
+            adapter.updateData(history);
+            updateEmptyState();
+        });
     }
 
     private void navigateToProductDetailIfValid(String barcode) {
@@ -85,25 +114,30 @@ public class ScanHistoryActivity extends AppCompatActivity {
             public void onSwiped(RecyclerView.ViewHolder viewHolder, int direction) {
                 int position = viewHolder.getAdapterPosition();
                 ScanHistory deletedItem = adapter.getItem(position);
-                
-                // Remove from list
-                adapter.removeItem(position);
-                
+                if (deletedItem == null || deletedItem.getId() == null) {
+                    adapter.notifyItemChanged(position);
+                    return;
+                }
+                long scanId = deletedItem.getId();
+
+                // Remove from list; the row is deleted once the undo snackbar is gone
+                viewModel.hideScan(scanId);
+
                 // Show undo snackbar
                 Snackbar snackbar = Snackbar.make(
                         rvScanHistory,
                         getString(R.string.scan_history_deleted),
                         Snackbar.LENGTH_LONG);
-                snackbar.setAction(getString(R.string.undo), v -> {
-                    // Restore item
-                    if (deletedItem != null && scanHistoryList != null) {
-                        scanHistoryList.add(position, deletedItem);
-                        adapter.updateData(scanHistoryList);
+                snackbar.setAction(getString(R.string.undo), v -> viewModel.restoreScan(scanId));
+                snackbar.addCallback(new BaseTransientBottomBar.BaseCallback<Snackbar>() {
+                    @Override
+                    public void onDismissed(Snackbar transientBottomBar, int event) {
+                        if (event != DISMISS_EVENT_ACTION) {
+                            viewModel.deleteScan(scanId);
+                        }
                     }
                 });
                 snackbar.show();
-                
-                updateEmptyState();
             }
         };
 
@@ -111,29 +145,6 @@ public class ScanHistoryActivity extends AppCompatActivity {
         itemTouchHelper.attachToRecyclerView(rvScanHistory);
     }
 
-    private void loadScanHistory() {
-        // TODO: Replace with ViewModel/Repository call
-        // For now, use empty list or sample data
-        scanHistoryList = new ArrayList<>();
-        
-        // Sample data for testing (remove when ViewModel is implemented)
-        // Uncomment below for testing:
-        /*
-        scanHistoryList.add(new ScanHistory.Builder()
-                .setId(1L)
-                .setBarcode("1234567890123")
-                .setProduct(new Product.Builder()
-                        .setName("Sample Product")
-                        .setBarcode("1234567890123")
-                        .build())
-                .setTimestamp(System.currentTimeMillis())
-                .build());
-        */
-        
-        adapter.updateData(scanHistoryList);
-        updateEmptyState();
-    }
-
     private void updateEmptyState() {
         if (adapter.getItemCount() == 0) {
             rvScanHistory.setVisibility(View.GONE);
@@ -143,11 +154,4 @@ public class ScanHistoryActivity extends AppCompatActivity {
             emptyState.setVisibility(View.GONE);
         }
     }
-
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Reload data when returning to this activity
-        loadScanHistory();
-    }
 }
@@ -6,7 +6,6 @@ import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
-import android.util.Log;
 import android.view.View;
 import android.widget.Toast;
 
@@ -14,39 +13,35 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.camera.core.CameraSelector;
-import androidx.camera.core.ImageAnalysis;
-import androidx.camera.core.Preview;
-import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.binbuddy.R;
 import com.example.binbuddy.databinding.ActivityScannerBinding;
+import com.example.binbuddy.ui.scanner.ScanningEngine;
 import com.example.binbuddy.ui.viewmodel.ScannerViewModel;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.mlkit.vision.barcode.BarcodeScanner;
-import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
-import com.google.mlkit.vision.barcode.BarcodeScanning;
-import com.google.mlkit.vision.barcode.common.Barcode;
-import com.google.mlkit.vision.common.InputImage;
+import com.example.binbuddy.util.FlowCollector;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import javax.inject.Inject;
 
+import dagger.hilt.android.AndroidEntryPoint;
+import kotlin.Unit;
+
+@AndroidEntryPoint
 public class ScannerActivity extends AppCompatActivity {
 
     private static final String TAG = "ScannerActivity";
     private static final int CAMERA_PERMISSION_REQUEST_CODE = 100;
     private static final long FINISH_DELAY_MS = 1500L;
-    private static final long CAMERA_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS = 2L;
+
+    @Inject
+    ScanningEngine scanningEngine;
 
     private ActivityScannerBinding binding;
     private ScannerViewModel viewModel;
-    private ExecutorService cameraExecutor;
-    private BarcodeScanner barcodeScanner;
+    private FlowCollector<String> barcodeCollector;
     private ActivityResultLauncher<Intent> manualEntryLauncher;
     private final Handler finishHandler = new Handler(Looper.getMainLooper());
     private final Runnable finishRunnable = () -> {
@@ -63,29 +58,12 @@ public class ScannerActivity extends AppCompatActivity {
 
         viewModel = new ViewModelProvider(this).get(ScannerViewModel.class);
         
-        setupBarcodeScanner();
         setupActivityResultLaunchers();
         setupObservers();
         setupClickListeners();
         checkCameraPermission();
     }
 
-    private void setupBarcodeScanner() {
-        BarcodeScannerOptions options = new BarcodeScannerOptions.Builder()
-                .setBarcodeFormats(
-                        Barcode.FORMAT_EAN_13,
-                        Barcode.FORMAT_EAN_8,
-                        Barcode.FORMAT_UPC_A,
-                        Barcode.FORMAT_UPC_E,
-                        Barcode.FORMAT_CODE_128,
-                        Barcode.FORMAT_CODE_39,
-                        Barcode.FORMAT_QR_CODE)
-                .build();
-
-        barcodeScanner = BarcodeScanning.getClient(options);
-        cameraExecutor = Executors.newSingleThreadExecutor();
-    }
-
     private void setupObservers() {
         viewModel.getScanResult().observe(this, barcode -> {
             if (barcode != null && !barcode.isEmpty()) {
@@ -104,6 +82,19 @@ public class ScannerActivity extends AppCompatActivity {
             boolean scanning = Boolean.TRUE.equals(isScanning);
             binding.progressBar.setVisibility(scanning ? View.GONE : View.VISIBLE);
         });
+
+        barcodeCollector = new FlowCollector<>(
+            scanningEngine.getAcceptedBarcodes(),
+            barcode -> {
+                // Ignore scans delivered while another screen is in front
+                if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+                    viewModel.processBarcode(barcode);
+                }
+                return Unit.INSTANCE;
+            },
+            null
+        );
+        barcodeCollector.start();
     }
 
     private void setupClickListeners() {
@@ -155,95 +146,10 @@ public class ScannerActivity extends AppCompatActivity {
     }
 
     private void startCamera() {
-        ListenableFuture<ProcessCameraProvider> cameraProviderFuture =
-                ProcessCameraProvider.getInstance(this);
-
-        cameraProviderFuture.addListener(() -> {
-            try {
-                ProcessCameraProvider cameraProvider = cameraProviderFuture.get();
-
-                Preview preview = new Preview.Builder().build();
-                preview.setSurfaceProvider(binding.previewView.getSurfaceProvider());
-
-                ImageAnalysis imageAnalysis = new ImageAnalysis.Builder()
-                        .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
-                        .build();
-
-                imageAnalysis.setAnalyzer(cameraExecutor, imageProxy -> {
-                    Boolean isScanning = viewModel.getIsScanning().getValue();
-                    if (isScanning == null || !isScanning) {
-                        imageProxy.close();
-                        return;
-                    }
-
-                    processImageProxy(imageProxy);
-                });
-
-                CameraSelector cameraSelector = CameraSelector.DEFAULT_BACK_CAMERA;
-
-                cameraProvider.bindToLifecycle(
-                        this,
-                        cameraSelector,
-                        preview,
-                        imageAnalysis
-                );
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                Log.e(TAG, "Interrupted starting camera", e);
-                runOnUiThread(() -> {
-                    Toast.makeText(this, getString(R.string.scanner_error_camera), Toast.LENGTH_SHORT).show();
-                    finish();
-                });
-            } catch (ExecutionException e) {
-                Log.e(TAG, "Error starting camera", e);
-                runOnUiThread(() -> {
-                    Toast.makeText(this, getString(R.string.scanner_error_camera), Toast.LENGTH_SHORT).show();
-                    finish();
-                });
-            }
-        }, ContextCompat.getMainExecutor(this));
-    }
-
-    private void processImageProxy(androidx.camera.core.ImageProxy imageProxy) {
-        android.media.Image mediaImage = imageProxy.getImage();
-        if (mediaImage == null) {
-            imageProxy.close();
-            return;
-        }
-
-        int rotationDegrees = imageProxy.getImageInfo() != null 
-            ? imageProxy.getImageInfo().getRotationDegrees() 
-            : 0;
-
-        InputImage image = InputImage.fromMediaImage(mediaImage, rotationDegrees);
-
-        barcodeScanner.process(image)
-                .addOnSuccessListener(barcodes -> {
-                    Boolean isScanning = viewModel.getIsScanning().getValue();
-                    if (isScanning == null || !isScanning) {
-                        imageProxy.close();
-                        return;
-                    }
-
-                    if (barcodes != null) {
-                        for (Barcode barcode : barcodes) {
-                            if (barcode != null) {
-                                String rawValue = barcode.getRawValue();
-                                if (rawValue != null && !rawValue.isEmpty()) {
-                                    viewModel.processBarcode(rawValue);
-                                    imageProxy.close();
-                                    return;
-                                }
-                            }
-                        }
-                    }
-                    imageProxy.close();
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error processing image", e);
-                    imageProxy.close();
-                });
+        scanningEngine.bind(this, binding.previewView.getSurfaceProvider(), e -> {
+            Toast.makeText(this, getString(R.string.scanner_error_camera), Toast.LENGTH_SHORT).show();
+            finish();
+        });
     }
 
     private void handleBarcodeResult(String barcode) {
@@ -264,22 +170,10 @@ public class ScannerActivity extends AppCompatActivity {
         finishHandler.removeCallbacks(finishRunnable);
         viewModel.stopScanning();
         
-        if (barcodeScanner != null) {
-            barcodeScanner.close();
+        if (barcodeCollector != null) {
+            barcodeCollector.cancel();
         }
-        
-        if (cameraExecutor != null && !cameraExecutor.isShutdown()) {
-            cameraExecutor.shutdown();
-            try {
-                if (!cameraExecutor.awaitTermination(CAMERA_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS, java.util.concurrent.TimeUnit.SECONDS)) {
-                    cameraExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                cameraExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
-        
+
         binding = null;
     }
 }
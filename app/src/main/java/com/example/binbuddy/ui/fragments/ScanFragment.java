@@ -5,7 +5,6 @@ import android.app.Activity;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,6 +16,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
@@ -26,33 +26,25 @@ import com.example.binbuddy.R;
 import com.example.binbuddy.databinding.FragmentScanBinding;
 import com.example.binbuddy.ui.ManualEntryActivity;
 import com.example.binbuddy.ui.ProductDetailActivity;
+import com.example.binbuddy.ui.scanner.ScanningEngine;
 import com.example.binbuddy.ui.viewmodel.ScannerViewModel;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.mlkit.vision.barcode.BarcodeScanner;
-import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
-import com.google.mlkit.vision.barcode.BarcodeScanning;
-import com.google.mlkit.vision.barcode.common.Barcode;
-import com.google.mlkit.vision.common.InputImage;
+import com.example.binbuddy.util.FlowCollector;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import javax.inject.Inject;
 
-import androidx.camera.core.CameraSelector;
-import androidx.camera.core.ImageAnalysis;
-import androidx.camera.core.Preview;
-import androidx.camera.lifecycle.ProcessCameraProvider;
+import kotlin.Unit;
 
 @AndroidEntryPoint
 public class ScanFragment extends Fragment {
 
     private static final String TAG = "ScanFragment";
-    private static final long CAMERA_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS = 2L;
+
+    @Inject
+    ScanningEngine scanningEngine;
 
     private FragmentScanBinding binding;
     private ScannerViewModel viewModel;
-    private ExecutorService cameraExecutor;
-    private BarcodeScanner barcodeScanner;
+    private FlowCollector<String> barcodeCollector;
     private ActivityResultLauncher<Intent> manualEntryLauncher;
     private ActivityResultLauncher<String> cameraPermissionLauncher;
 
@@ -69,29 +61,12 @@ public class ScanFragment extends Fragment {
 
         viewModel = new ViewModelProvider(this).get(ScannerViewModel.class);
         
-        setupBarcodeScanner();
         setupActivityResultLaunchers();
         setupObservers();
         setupClickListeners();
         checkCameraPermission();
     }
 
-    private void setupBarcodeScanner() {
-        BarcodeScannerOptions options = new BarcodeScannerOptions.Builder()
-                .setBarcodeFormats(
-                        Barcode.FORMAT_EAN_13,
-                        Barcode.FORMAT_EAN_8,
-                        Barcode.FORMAT_UPC_A,
-                        Barcode.FORMAT_UPC_E,
-                        Barcode.FORMAT_CODE_128,
-                        Barcode.FORMAT_CODE_39,
-                        Barcode.FORMAT_QR_CODE)
-                .build();
-
-        barcodeScanner = BarcodeScanning.getClient(options);
-        cameraExecutor = Executors.newSingleThreadExecutor();
-    }
-
     private void setupObservers() {
         viewModel.getScanResult().observe(getViewLifecycleOwner(), barcode -> {
             if (barcode != null && !barcode.isEmpty()) {
@@ -110,6 +85,19 @@ public class ScanFragment extends Fragment {
             boolean scanning = Boolean.TRUE.equals(isScanning);
             binding.progressBar.setVisibility(scanning ? View.GONE : View.VISIBLE);
         });
+
+        barcodeCollector = new FlowCollector<>(
+            scanningEngine.getAcceptedBarcodes(),
+            barcode -> {
+                // Ignore scans delivered while another screen is in front
+                if (getViewLifecycleOwner().getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+                    viewModel.processBarcode(barcode);
+                }
+                return Unit.INSTANCE;
+            },
+            null
+        );
+        barcodeCollector.start();
     }
 
     private void setupClickListeners() {
@@ -162,89 +150,9 @@ public class ScanFragment extends Fragment {
     }
 
     private void startCamera() {
-        ListenableFuture<ProcessCameraProvider> cameraProviderFuture =
-                ProcessCameraProvider.getInstance(requireContext());
-
-        cameraProviderFuture.addListener(() -> {
-            try {
-                ProcessCameraProvider cameraProvider = cameraProviderFuture.get();
-
-                Preview preview = new Preview.Builder().build();
-                preview.setSurfaceProvider(binding.previewView.getSurfaceProvider());
-
-                ImageAnalysis imageAnalysis = new ImageAnalysis.Builder()
-                        .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
-                        .build();
-
-                imageAnalysis.setAnalyzer(cameraExecutor, imageProxy -> {
-                    boolean isScanning = Boolean.TRUE.equals(viewModel.getIsScanning().getValue());
-                    if (!isScanning) {
-                        imageProxy.close();
-                        return;
-                    }
-
-                    processImageProxy(imageProxy);
-                });
-
-                CameraSelector cameraSelector = CameraSelector.DEFAULT_BACK_CAMERA;
-
-                cameraProvider.bindToLifecycle(
-                        getViewLifecycleOwner(),
-                        cameraSelector,
-                        preview,
-                        imageAnalysis
-                );
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                Log.e(TAG, "Interrupted starting camera", e);
-                Toast.makeText(requireContext(), getString(R.string.scanner_error_camera), Toast.LENGTH_SHORT).show();
-            } catch (ExecutionException e) {
-                Log.e(TAG, "Error starting camera", e);
-                Toast.makeText(requireContext(), getString(R.string.scanner_error_camera), Toast.LENGTH_SHORT).show();
-            }
-        }, ContextCompat.getMainExecutor(requireContext()));
-    }
-
-    private void processImageProxy(androidx.camera.core.ImageProxy imageProxy) {
-        android.media.Image mediaImage = imageProxy.getImage();
-        if (mediaImage == null) {
-            imageProxy.close();
-            return;
-        }
-
-        int rotationDegrees = imageProxy.getImageInfo() != null 
-            ? imageProxy.getImageInfo().getRotationDegrees() 
-            : 0;
-
-        InputImage image = InputImage.fromMediaImage(mediaImage, rotationDegrees);
-
-        barcodeScanner.process(image)
-                .addOnSuccessListener(barcodes -> {
-                    boolean isScanning = Boolean.TRUE.equals(viewModel.getIsScanning().getValue());
-                    if (!isScanning) {
-                        imageProxy.close();
-                        return;
-                    }
-
-                    if (barcodes != null) {
-                        for (Barcode barcode : barcodes) {
-                            if (barcode != null) {
-                                String rawValue = barcode.getRawValue();
-                                if (rawValue != null && !rawValue.isEmpty()) {
-                                    viewModel.processBarcode(rawValue);
-                                    imageProxy.close();
-                                    return;
-                                }
-                            }
-                        }
-                    }
-                    imageProxy.close();
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error processing image", e);
-                    imageProxy.close();
-                });
+        scanningEngine.bind(getViewLifecycleOwner(), binding.previewView.getSurfaceProvider(), e ->
+            Toast.makeText(requireContext(), getString(R.string.scanner_error_camera), Toast.LENGTH_SHORT).show()
+        );
     }
 
     private void handleBarcodeResult(String barcode) {
@@ -261,22 +169,10 @@ public class ScanFragment extends Fragment {
         super.onDestroyView();
         viewModel.stopScanning();
         
-        if (barcodeScanner != null) {
-            barcodeScanner.close();
-        }
-        
-        if (cameraExecutor != null && !cameraExecutor.isShutdown()) {
-            cameraExecutor.shutdown();
-            try {
-                if (!cameraExecutor.awaitTermination(CAMERA_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS, java.util.concurrent.TimeUnit.SECONDS)) {
-                    cameraExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                cameraExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        if (barcodeCollector != null) {
+            barcodeCollector.cancel();
         }
-        
+
         binding = null;
     }
 }
\ No newline at end of file
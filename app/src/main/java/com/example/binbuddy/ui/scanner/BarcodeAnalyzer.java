@@ -0,0 +1,363 @@
+package com.example.binbuddy.ui.scanner;
+
+import android.util.Log;
+import android.util.Size;
+
+import androidx.annotation.NonNull;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.ImageProxy;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
+
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
+import com.google.mlkit.vision.barcode.BarcodeScanning;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * CameraX analyzer that decodes retail barcodes with ML Kit.
+ *
+ * - Only the centre region of interest of the luminance plane is copied (into a reused NV21
+ *   buffer) and decoded; barcodes are aimed at the middle of the preview anyway
+ * - The ImageProxy is closed right after the copy, so the camera never waits on the decoder
+ * - Frames are only decoded while the ScanGate is scanning, and at most one decode is in
+ *   flight; frames arriving meanwhile are closed unread
+ * - Frames are skipped adaptively from the measured decode latency, so slow devices decode
+ *   fewer frames instead of queueing work and burning battery
+ */
+public class BarcodeAnalyzer implements ImageAnalysis.Analyzer {
+
+    private static final String TAG = "BarcodeAnalyzer";
+
+    // Weight of the newest sample in the latency moving average
+    private static final double LATENCY_EMA_ALPHA = 0.2;
+    // Neutral chroma: the NV21 UV plane carries no information for barcode decoding
+    private static final byte NEUTRAL_CHROMA = (byte) 128;
+
+    /**
+     * Receives decode results. Called on the main thread.
+     */
+    public interface Listener {
+        void onBarcodeDecoded(@NonNull String rawValue, int format);
+
+        default void onDecodeFailed(@NonNull Exception e) {
+            Log.e(TAG, "Error processing image", e);
+        }
+    }
+
+    private final Config config;
+    private final Listener listener;
+    private final ScanGate scanGate;
+    private final BarcodeScanner barcodeScanner;
+
+    // Camera thread only; safe to reuse because ScanGate allows a single decode in flight
+    private byte[] nv21Buffer;
+    private int framesToSkip;
+
+    private volatile double latencyEmaMs;
+    private volatile int skipPerFrame;
+
+    public BarcodeAnalyzer(@NonNull Config config, @NonNull ScanGate scanGate, @NonNull Listener listener) {
+        this.config = config;
+        this.scanGate = scanGate;
+        this.listener = listener;
+        this.barcodeScanner = BarcodeScanning.getClient(new BarcodeScannerOptions.Builder()
+                .setBarcodeFormats(config.formats[0], Arrays.copyOfRange(config.formats, 1, config.formats.length))
+                .build());
+    }
+
+    /**
+     * Build the ImageAnalysis use case matching this analyzer's configuration.
+     */
+    public static ImageAnalysis buildImageAnalysis(@NonNull Config config) {
+        ResolutionSelector resolutionSelector = new ResolutionSelector.Builder()
+                .setResolutionStrategy(new ResolutionStrategy(config.targetResolution,
+                        ResolutionStrategy.FALLBACK_RULE_CLOSEST_HIGHER_THEN_LOWER))
+                .build();
+        return new ImageAnalysis.Builder()
+                .setResolutionSelector(resolutionSelector)
+                .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
+                .build();
+    }
+
+    @Override
+    public void analyze(@NonNull ImageProxy imageProxy) {
+        if (!scanGate.isScanning()) {
+            imageProxy.close();
+            return;
+        }
+        if (framesToSkip > 0) {
+            framesToSkip--;
+            imageProxy.close();
+            return;
+        }
+        if (!scanGate.tryBeginDecode()) {
+            imageProxy.close();
+            return;
+        }
+
+        InputImage image = null;
+        try {
+            image = cropToInputImage(imageProxy);
+        } finally {
+            imageProxy.close();
+            if (image == null) {
+                scanGate.endDecode();
+            }
+        }
+        if (image == null) {
+            return;
+        }
+        framesToSkip = skipPerFrame;
+
+        final long startNanos = System.nanoTime();
+        barcodeScanner.process(image)
+                .addOnSuccessListener(barcodes -> {
+                    if (barcodes == null || !scanGate.isScanning()) {
+                        return;
+                    }
+                    for (Barcode barcode : barcodes) {
+                        String rawValue = barcode != null ? barcode.getRawValue() : null;
+                        if (rawValue != null && !rawValue.isEmpty()) {
+                            listener.onBarcodeDecoded(rawValue, barcode.getFormat());
+                            break;
+                        }
+                    }
+                })
+                .addOnFailureListener(listener::onDecodeFailed)
+                .addOnCompleteListener(task -> {
+                    recordLatency((System.nanoTime() - startNanos) / 1_000_000L);
+                    scanGate.endDecode();
+                });
+    }
+
+    /**
+     * Run one decode on a blank frame so ML Kit loads its model before the first real frame.
+     */
+    public void warmUp() {
+        int width = 32;
+        int height = 32;
+        byte[] blank = new byte[width * height * 3 / 2];
+        barcodeScanner.process(InputImage.fromByteArray(blank, width, height, 0, InputImage.IMAGE_FORMAT_NV21))
+                .addOnFailureListener(e -> Log.w(TAG, "Decoder warm-up failed", e));
+    }
+
+    /**
+     * Copy the centre region of interest of the Y plane into the NV21 buffer.
+     *
+     * @return Image to decode, or null if the frame has no usable luminance plane
+     */
+    private InputImage cropToInputImage(ImageProxy imageProxy) {
+        ImageProxy.PlaneProxy[] planes = imageProxy.getPlanes();
+        if (planes == null || planes.length == 0) {
+            return null;
+        }
+        int rotationDegrees = imageProxy.getImageInfo() != null
+                ? imageProxy.getImageInfo().getRotationDegrees()
+                : 0;
+
+        // ROI fractions are given for the upright preview; the sensor frame is rotated by 90/270
+        boolean sideways = rotationDegrees % 180 != 0;
+        float widthFraction = sideways ? config.roiHeightFraction : config.roiWidthFraction;
+        float heightFraction = sideways ? config.roiWidthFraction : config.roiHeightFraction;
+        int frameWidth = imageProxy.getWidth();
+        int frameHeight = imageProxy.getHeight();
+        // NV21 needs even dimensions and offsets
+        int cropWidth = Math.max(2, Math.round(frameWidth * widthFraction) & ~1);
+        int cropHeight = Math.max(2, Math.round(frameHeight * heightFraction) & ~1);
+        int left = ((frameWidth - cropWidth) / 2) & ~1;
+        int top = ((frameHeight - cropHeight) / 2) & ~1;
+
+        int lumaSize = cropWidth * cropHeight;
+        int nv21Size = lumaSize + lumaSize / 2;
+        if (nv21Buffer == null || nv21Buffer.length != nv21Size) {
+            nv21Buffer = new byte[nv21Size];
+            Arrays.fill(nv21Buffer, lumaSize, nv21Size, NEUTRAL_CHROMA);
+        }
+
+        ImageProxy.PlaneProxy yPlane = planes[0];
+        ByteBuffer yBuffer = yPlane.getBuffer();
+        int rowStride = yPlane.getRowStride();
+        int pixelStride = yPlane.getPixelStride();
+        for (int row = 0; row < cropHeight; row++) {
+            int rowStart = (top + row) * rowStride + left * pixelStride;
+            int out = row * cropWidth;
+            if (pixelStride == 1) {
+                yBuffer.position(rowStart);
+                yBuffer.get(nv21Buffer, out, cropWidth);
+            } else {
+                for (int col = 0; col < cropWidth; col++) {
+                    nv21Buffer[out + col] = yBuffer.get(rowStart + col * pixelStride);
+                }
+            }
+        }
+
+        return InputImage.fromByteArray(nv21Buffer, cropWidth, cropHeight, rotationDegrees,
+                InputImage.IMAGE_FORMAT_NV21);
+    }
+
+    /**
+     * Fold a decode latency into the moving average and derive how many frames to skip
+     * after each decode: none while decoding stays within the target latency.
+     */
+    private void recordLatency(long latencyMs) {
+        double ema = latencyEmaMs == 0
+                ? latencyMs
+                : LATENCY_EMA_ALPHA * latencyMs + (1 - LATENCY_EMA_ALPHA) * latencyEmaMs;
+        latencyEmaMs = ema;
+        int skip = (int) (ema / config.targetDecodeLatencyMs) - 1;
+        skipPerFrame = Math.max(0, Math.min(config.maxSkippedFrames, skip));
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Moving average of the decode latency in milliseconds, 0 before the first decode.
+     */
+    public double getLatencyEmaMs() {
+        return latencyEmaMs;
+    }
+
+    /**
+     * Release the ML Kit decoder.
+     */
+    public void close() {
+        barcodeScanner.close();
+    }
+
+    /**
+     * Analysis configuration.
+     */
+    public static class Config {
+        /** Formats found on retail products */
+        public static final int[] RETAIL_FORMATS = {
+                Barcode.FORMAT_EAN_13,
+                Barcode.FORMAT_EAN_8,
+                Barcode.FORMAT_UPC_A,
+                Barcode.FORMAT_UPC_E
+        };
+
+        private final Size targetResolution;
+        private final int[] formats;
+        private final float roiWidthFraction;
+        private final float roiHeightFraction;
+        private final long targetDecodeLatencyMs;
+        private final int maxSkippedFrames;
+
+        private Config(Builder builder) {
+            this.targetResolution = builder.targetResolution;
+            this.formats = builder.formats;
+            this.roiWidthFraction = builder.roiWidthFraction;
+            this.roiHeightFraction = builder.roiHeightFraction;
+            this.targetDecodeLatencyMs = builder.targetDecodeLatencyMs;
+            this.maxSkippedFrames = builder.maxSkippedFrames;
+        }
+
+        /**
+         * Default configuration: 1280x720 analysis, retail formats, 80% x 50% centre crop.
+         */
+        public static Config createDefault() {
+            return new Builder().build();
+        }
+
+        public Size getTargetResolution() {
+            return targetResolution;
+        }
+
+        public int[] getFormats() {
+            return formats.clone();
+        }
+
+        public float getRoiWidthFraction() {
+            return roiWidthFraction;
+        }
+
+        public float getRoiHeightFraction() {
+            return roiHeightFraction;
+        }
+
+        public long getTargetDecodeLatencyMs() {
+            return targetDecodeLatencyMs;
+        }
+
+        public int getMaxSkippedFrames() {
+            return maxSkippedFrames;
+        }
+
+        /**
+         * Builder pattern for easier construction
+         */
+        public static class Builder {
+            private Size targetResolution = new Size(1280, 720);
+            private int[] formats = RETAIL_FORMATS;
+            private float roiWidthFraction = 0.8f;
+            private float roiHeightFraction = 0.5f;
+            private long targetDecodeLatencyMs = 100L;
+            private int maxSkippedFrames = 4;
+
+            /**
+             * Analysis resolution requested from CameraX (closest available is used).
+             */
+            public Builder setTargetResolution(Size targetResolution) {
+                this.targetResolution = targetResolution;
+                return this;
+            }
+
+            /**
+             * Barcode formats to decode (Barcode.FORMAT_*).
+             */
+            public Builder setFormats(int... formats) {
+                this.formats = formats.clone();
+                return this;
+            }
+
+            /**
+             * Centre region of interest as fractions (0-1] of the upright preview width and height.
+             */
+            public Builder setRegionOfInterest(float widthFraction, float heightFraction) {
+                this.roiWidthFraction = widthFraction;
+                this.roiHeightFraction = heightFraction;
+                return this;
+            }
+
+            /**
+             * Decode latency above which frames start to be skipped.
+             */
+            public Builder setTargetDecodeLatencyMs(long targetDecodeLatencyMs) {
+                this.targetDecodeLatencyMs = targetDecodeLatencyMs;
+                return this;
+            }
+
+            /**
+             * Upper bound of frames skipped after each decode.
+             */
+            public Builder setMaxSkippedFrames(int maxSkippedFrames) {
+                this.maxSkippedFrames = maxSkippedFrames;
+                return this;
+            }
+
+            public Config build() {
+                if (targetResolution == null) {
+                    throw new IllegalArgumentException("Target resolution must not be null");
+                }
+                if (formats == null || formats.length == 0) {
+                    throw new IllegalArgumentException("At least one barcode format is required");
+                }
+                if (roiWidthFraction <= 0f || roiWidthFraction > 1f
+                        || roiHeightFraction <= 0f || roiHeightFraction > 1f) {
+                    throw new IllegalArgumentException("Region of interest fractions must be in (0, 1]");
+                }
+                if (targetDecodeLatencyMs <= 0 || maxSkippedFrames < 0) {
+                    throw new IllegalArgumentException("Invalid frame skipping settings");
+                }
+                return new Config(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.binbuddy.ui.scanner;
+
+import com.google.mlkit.vision.barcode.common.Barcode;
+
+/**
+ * Decides when a decoded barcode is trustworthy enough to act on.
+ *
+ * - EAN-13, EAN-8, UPC-A and UPC-E carry a check digit: one frame with a valid checksum is
+ *   accepted immediately, one with an invalid checksum is dropped as a misread
+ * - Other formats (or UPC-E without check digit) are accepted once the same value was decoded
+ *   in {@code requiredAgreement} of the last {@code windowSize} frames
+ * - A value accepted within the suppression window is not reported again
+ *
+ * Not thread-safe; feed it from the thread that receives the decode results (the main thread).
+ */
+public class BarcodeConsensus {
+
+    public static final int DEFAULT_WINDOW_SIZE = 5;
+    public static final int DEFAULT_REQUIRED_AGREEMENT = 3;
+    public static final long DEFAULT_SUPPRESSION_WINDOW_MS = 2000L;
+
+    private final int requiredAgreement;
+    private final long suppressionWindowMs;
+
+    // Ring buffer of the most recent decodes
+    private final String[] recent;
+    private int next;
+    private int size;
+
+    private String lastAccepted;
+    private long lastAcceptedAt;
+
+    public BarcodeConsensus() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_REQUIRED_AGREEMENT, DEFAULT_SUPPRESSION_WINDOW_MS);
+    }
+
+    public BarcodeConsensus(int windowSize, int requiredAgreement, long suppressionWindowMs) {
+        if (requiredAgreement < 1 || windowSize < requiredAgreement) {
+            throw new IllegalArgumentException("Window must hold at least requiredAgreement decodes");
+        }
+        this.recent = new String[windowSize];
+        this.requiredAgreement = requiredAgreement;
+        this.suppressionWindowMs = suppressionWindowMs;
+    }
+
+    /**
+     * Offer a decode from one frame.
+     *
+     * @param rawValue Decoded value
+     * @param format ML Kit Barcode.FORMAT_* of the decode
+     * @param nowMs Current time (SystemClock.elapsedRealtime())
+     * @return The value if it is accepted now, or null if more evidence is needed, it is a
+     *         misread or it repeats a recently accepted scan
+     */
+    public String offer(String rawValue, int format, long nowMs) {
+        if (rawValue == null || rawValue.isEmpty()) {
+            return null;
+        }
+        if (rawValue.equals(lastAccepted) && nowMs - lastAcceptedAt < suppressionWindowMs) {
+            return null;
+        }
+
+        String checked = checkDigitValue(rawValue, format);
+        if (checked != null) {
+            if (!isValidGtin(checked)) {
+                return null;
+            }
+            return accept(rawValue, nowMs);
+        }
+
+        recent[next] = rawValue;
+        next = (next + 1) % recent.length;
+        size = Math.min(size + 1, recent.length);
+        int agreeing = 0;
+        for (int i = 0; i < size; i++) {
+            if (rawValue.equals(recent[i])) {
+                agreeing++;
+            }
+        }
+        return agreeing >= requiredAgreement ? accept(rawValue, nowMs) : null;
+    }
+
+    /**
+     * Forget pending decodes, e.g. when scanning restarts. The last accepted value stays
+     * suppressed, so a barcode still in front of the camera is not accepted again at once.
+     */
+    public void clearPending() {
+        clearRecent();
+    }
+
+    /**
+     * Forget pending decodes and the last accepted value, e.g. when another scan screen binds.
+     */
+    public void reset() {
+        clearRecent();
+        lastAccepted = null;
+        lastAcceptedAt = 0L;
+    }
+
+    private String accept(String rawValue, long nowMs) {
+        lastAccepted = rawValue;
+        lastAcceptedAt = nowMs;
+        clearRecent();
+        return rawValue;
+    }
+
+    private void clearRecent() {
+        for (int i = 0; i < recent.length; i++) {
+            recent[i] = null;
+        }
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * GTIN digits whose check digit can be verified for this decode, or null if the format
+     * carries no verifiable check digit.
+     */
+    private static String checkDigitValue(String rawValue, int format) {
+        switch (format) {
+            case Barcode.FORMAT_EAN_13:
+            case Barcode.FORMAT_EAN_8:
+            case Barcode.FORMAT_UPC_A:
+                return rawValue;
+            case Barcode.FORMAT_UPC_E:
+                return rawValue.length() == 8 ? expandUpcE(rawValue) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Validate the GS1 mod-10 check digit of an EAN-8, UPC-A (12 digits) or EAN-13 code.
+     */
+    public static boolean isValidGtin(CharSequence digits) {
+        if (digits == null) {
+            return false;
+        }
+        int length = digits.length();
+        if (length != 8 && length != 12 && length != 13) {
+            return false;
+        }
+        int sum = 0;
+        // Weights 3,1,3,... from the digit left of the check digit
+        for (int i = length - 2, weight = 3; i >= 0; i--, weight = 4 - weight) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += digit * weight;
+        }
+        int check = digits.charAt(length - 1) - '0';
+        return check >= 0 && check <= 9 && (10 - sum % 10) % 10 == check;
+    }
+
+    /**
+     * Expand an 8-digit UPC-E code (number system, 6 digits, check digit) to UPC-A.
+     *
+     * @return 12-digit UPC-A code, or null if the input is not a valid UPC-E layout
+     */
+    public static String expandUpcE(String upcE) {
+        if (upcE == null || upcE.length() != 8) {
+            return null;
+        }
+        for (int i = 0; i < 8; i++) {
+            char c = upcE.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        char numberSystem = upcE.charAt(0);
+        if (numberSystem != '0' && numberSystem != '1') {
+            return null;
+        }
+        String d = upcE.substring(1, 7);
+        char last = d.charAt(5);
+        String body;
+        switch (last) {
+            case '0':
+            case '1':
+            case '2':
+                body = d.substring(0, 2) + last + "0000" + d.substring(2, 5);
+                break;
+            case '3':
+                body = d.substring(0, 3) + "00000" + d.substring(3, 5);
+                break;
+            case '4':
+                body = d.substring(0, 4) + "00000" + d.charAt(4);
+                break;
+            default:
+                body = d.substring(0, 5) + "0000" + last;
+                break;
+        }
+        return numberSystem + body + upcE.charAt(7);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.binbuddy.ui.scanner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Lock-free scanning state shared by the camera analyzer and the scan screens' ViewModel.
+ *
+ * IDLE -> SCANNING (start) -> DECODING (a frame is being decoded) -> SCANNING (decode done)
+ * SCANNING / DECODING -> ACCEPTED (a barcode was accepted; further frames are dropped)
+ * any -> IDLE (stop), IDLE / ACCEPTED -> SCANNING (start again)
+ *
+ * The state lives in one AtomicInteger: the phase (IDLE, SCANNING, ACCEPTED) plus a bit for a
+ * decode in flight, so the analyzer never waits on the UI thread and a decode started before
+ * a stop/start cycle still blocks the next one until it finishes.
+ */
+@Singleton
+public class ScanGate {
+
+    public static final int IDLE = 0;
+    public static final int SCANNING = 1;
+    public static final int DECODING = 2;
+    public static final int ACCEPTED = 3;
+
+    private static final int PHASE_MASK = 3;
+    private static final int DECODE_IN_FLIGHT = 4;
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    // Incremented by every start that leaves another phase
+    private final AtomicInteger session = new AtomicInteger();
+
+    @Inject
+    public ScanGate() {
+    }
+
+    /**
+     * Current state: IDLE, SCANNING, DECODING or ACCEPTED.
+     */
+    public int getState() {
+        int current = state.get();
+        int phase = current & PHASE_MASK;
+        return phase == SCANNING && (current & DECODE_IN_FLIGHT) != 0 ? DECODING : phase;
+    }
+
+    /**
+     * Whether frames are currently wanted (scanning, or a decode is in flight).
+     */
+    public boolean isScanning() {
+        return (state.get() & PHASE_MASK) == SCANNING;
+    }
+
+    /**
+     * Start (or restart) scanning.
+     */
+    public void start() {
+        if (setPhase(SCANNING)) {
+            session.incrementAndGet();
+        }
+    }
+
+    /**
+     * Number of the current scanning session; changes whenever scanning (re)starts.
+     */
+    public int getSession() {
+        return session.get();
+    }
+
+    /**
+     * Stop scanning; frames are dropped until the next start.
+     */
+    public void stop() {
+        setPhase(IDLE);
+    }
+
+    /**
+     * Claim the decoder for one frame.
+     *
+     * @return true if the caller may decode, false if scanning is off or a decode is in flight
+     */
+    public boolean tryBeginDecode() {
+        return state.compareAndSet(SCANNING, SCANNING | DECODE_IN_FLIGHT);
+    }
+
+    /**
+     * Release the decoder after a decode, whatever happened to the phase meanwhile.
+     */
+    public void endDecode() {
+        int current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, current & ~DECODE_IN_FLIGHT));
+    }
+
+    /**
+     * Accept a scanned barcode.
+     *
+     * @return true for the first acceptance of this scanning session, false if scanning is off
+     *         or a barcode was already accepted
+     */
+    public boolean tryAccept() {
+        int current;
+        do {
+            current = state.get();
+            if ((current & PHASE_MASK) != SCANNING) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, (current & ~PHASE_MASK) | ACCEPTED));
+        return true;
+    }
+
+    /**
+     * Mark a barcode as accepted regardless of the current state (e.g. manual entry).
+     */
+    public void markAccepted() {
+        setPhase(ACCEPTED);
+    }
+
+    /**
+     * @return true if the phase changed
+     */
+    private boolean setPhase(int phase) {
+        int current;
+        do {
+            current = state.get();
+            if ((current & PHASE_MASK) == phase) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, (current & ~PHASE_MASK) | phase));
+        return true;
+    }
+}
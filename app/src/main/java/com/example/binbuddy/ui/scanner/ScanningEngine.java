@@ -0,0 +1,203 @@
+package com.example.binbuddy.ui.scanner;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.camera.core.CameraSelector;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.Preview;
+import androidx.camera.lifecycle.ProcessCameraProvider;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import kotlinx.coroutines.channels.BufferOverflow;
+import kotlinx.coroutines.flow.Flow;
+import kotlinx.coroutines.flow.MutableSharedFlow;
+import kotlinx.coroutines.flow.SharedFlowKt;
+
+/**
+ * Camera and barcode decoding shared by every scan screen.
+ *
+ * The engine keeps one ML Kit decoder, one analysis thread and the camera provider for the
+ * lifetime of the app, so entering a scan screen only binds CameraX use cases to its lifecycle.
+ * Frames are decoded while the shared ScanGate is scanning; accepted barcodes (see
+ * BarcodeConsensus) are published on {@link #getAcceptedBarcodes()}.
+ *
+ * Only one screen is bound at a time; binding another lifecycle owner replaces the previous one
+ * and removes its lifecycle observer.
+ * All methods must be called on the main thread.
+ */
+@Singleton
+public class ScanningEngine {
+
+    private static final String TAG = "ScanningEngine";
+
+    /**
+     * Receives camera setup failures. Called on the main thread.
+     */
+    public interface Callback {
+        void onCameraError(@NonNull Exception e);
+    }
+
+    private final Context context;
+    private final ScanGate scanGate;
+    private final BarcodeAnalyzer.Config config;
+    private final ExecutorService analysisExecutor;
+    private final BarcodeConsensus consensus = new BarcodeConsensus();
+    private final MutableSharedFlow<String> acceptedBarcodes =
+            SharedFlowKt.MutableSharedFlow(0, 1, BufferOverflow.DROP_OLDEST);
+
+    private BarcodeAnalyzer analyzer;
+    private ListenableFuture<ProcessCameraProvider> cameraProviderFuture;
+    private LifecycleOwner boundOwner;
+    private Preview boundPreview;
+    private ImageAnalysis boundAnalysis;
+    private DefaultLifecycleObserver boundObserver;
+    // ScanGate session the consensus window belongs to
+    private int consensusSession;
+
+    @Inject
+    public ScanningEngine(@ApplicationContext Context context, ScanGate scanGate) {
+        this.context = context;
+        this.scanGate = scanGate;
+        this.config = BarcodeAnalyzer.Config.createDefault();
+        this.analysisExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "barcode-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Barcodes accepted while the ScanGate is scanning. Each emission has already moved the gate
+     * to ACCEPTED. Emissions are not replayed.
+     */
+    public Flow<String> getAcceptedBarcodes() {
+        return acceptedBarcodes;
+    }
+
+    /**
+     * Create the decoder, load its model and start initializing the camera provider, so the
+     * first scan screen does not pay for it. Safe to call repeatedly.
+     */
+    @MainThread
+    public void warmUp() {
+        getAnalyzer();
+        getCameraProviderFuture();
+    }
+
+    /**
+     * Bind the camera preview and barcode analysis to a lifecycle owner.
+     * The use cases are unbound when the owner is destroyed or another owner is bound.
+     *
+     * @param owner Lifecycle of the scan screen (an Activity or a Fragment's view lifecycle)
+     * @param surfaceProvider Surface of the screen's PreviewView
+     * @param callback Receives camera setup failures
+     */
+    @MainThread
+    public void bind(@NonNull LifecycleOwner owner, @NonNull Preview.SurfaceProvider surfaceProvider,
+                     @NonNull Callback callback) {
+        BarcodeAnalyzer barcodeAnalyzer = getAnalyzer();
+        ListenableFuture<ProcessCameraProvider> future = getCameraProviderFuture();
+        future.addListener(() -> {
+            if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+                return;
+            }
+            try {
+                ProcessCameraProvider cameraProvider = future.get();
+                unbind(cameraProvider);
+
+                Preview preview = new Preview.Builder().build();
+                preview.setSurfaceProvider(surfaceProvider);
+
+                ImageAnalysis imageAnalysis = BarcodeAnalyzer.buildImageAnalysis(config);
+                imageAnalysis.setAnalyzer(analysisExecutor, barcodeAnalyzer);
+
+                // A new screen starts without evidence or suppression from the previous one
+                consensus.reset();
+
+                cameraProvider.bindToLifecycle(owner, CameraSelector.DEFAULT_BACK_CAMERA, preview, imageAnalysis);
+                boundOwner = owner;
+                boundPreview = preview;
+                boundAnalysis = imageAnalysis;
+                boundObserver = new DefaultLifecycleObserver() {
+                    @Override
+                    public void onDestroy(@NonNull LifecycleOwner destroyed) {
+                        unbind(cameraProvider);
+                        scanGate.stop();
+                    }
+                };
+                owner.getLifecycle().addObserver(boundObserver);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Log.e(TAG, "Interrupted starting camera", e);
+                callback.onCameraError(e);
+            } catch (ExecutionException e) {
+                Log.e(TAG, "Error starting camera", e);
+                // Let the next bind retry the provider initialization
+                cameraProviderFuture = null;
+                callback.onCameraError(e);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                Log.e(TAG, "Error binding camera use cases", e);
+                callback.onCameraError(e);
+            }
+        }, ContextCompat.getMainExecutor(context));
+    }
+
+    private void unbind(ProcessCameraProvider cameraProvider) {
+        if (boundAnalysis != null) {
+            boundAnalysis.clearAnalyzer();
+            cameraProvider.unbind(boundPreview, boundAnalysis);
+        }
+        if (boundObserver != null) {
+            boundOwner.getLifecycle().removeObserver(boundObserver);
+        }
+        boundOwner = null;
+        boundObserver = null;
+        boundPreview = null;
+        boundAnalysis = null;
+    }
+
+    private BarcodeAnalyzer getAnalyzer() {
+        if (analyzer == null) {
+            // Decode results arrive on the main thread, where the consensus lives
+            analyzer = new BarcodeAnalyzer(config, scanGate, (rawValue, format) -> {
+                int session = scanGate.getSession();
+                if (session != consensusSession) {
+                    // Frames of an earlier scanning session do not count towards agreement
+                    consensus.clearPending();
+                    consensusSession = session;
+                }
+                String accepted = consensus.offer(rawValue, format, SystemClock.elapsedRealtime());
+                // Only the first acceptance of a scanning session is published
+                if (accepted != null && scanGate.tryAccept()) {
+                    acceptedBarcodes.tryEmit(accepted);
+                }
+            });
+            analyzer.warmUp();
+        }
+        return analyzer;
+    }
+
+    private ListenableFuture<ProcessCameraProvider> getCameraProviderFuture() {
+        if (cameraProviderFuture == null) {
+            cameraProviderFuture = ProcessCameraProvider.getInstance(context);
+        }
+        return cameraProviderFuture;
+    }
+}
@@ -8,15 +8,25 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.binbuddy.domain.model.Product;
+import com.example.binbuddy.domain.model.Result;
+import com.example.binbuddy.domain.repository.ProductRepository;
+import com.example.binbuddy.domain.usecase.GetFavoritesUseCase;
+import com.example.binbuddy.util.FlowCollector;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
+import javax.inject.Inject;
+
+import dagger.hilt.android.lifecycle.HiltViewModel;
+import kotlin.Unit;
+
+@HiltViewModel
 public class MainViewModel extends AndroidViewModel {
-    private final ExecutorService networkExecutor = Executors.newSingleThreadExecutor();
+    private final ProductRepository productRepository;
+    private final GetFavoritesUseCase getFavoritesUseCase;
+    private FlowCollector<Result<Product>> productCollector;
+    private FlowCollector<List<Product>> favoritesCollector;
     
     private final MutableLiveData<Product> product = new MutableLiveData<>();
     private final MutableLiveData<List<Product>> recentScans = new MutableLiveData<>();
@@ -24,8 +34,12 @@ public class MainViewModel extends AndroidViewModel {
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>();
 
-    public MainViewModel(@NonNull Application application) {
+    @Inject
+    public MainViewModel(@NonNull Application application, ProductRepository productRepository,
+                         GetFavoritesUseCase getFavoritesUseCase) {
         super(application);
+        this.productRepository = productRepository;
+        this.getFavoritesUseCase = getFavoritesUseCase;
         loadRecentScans();
         loadFavorites();
     }
@@ -51,20 +65,34 @@ public class MainViewModel extends AndroidViewModel {
     }
 
     public void loadProduct(String barcode) {
+        if (productCollector != null) {
+            productCollector.cancel();
+        }
+
         isLoading.setValue(true);
         error.setValue(null);
-        
-        networkExecutor.execute(() -> {
-            try {
-                Product fetchedProduct = fetchProductFromApi(barcode);
-                product.postValue(fetchedProduct);
-                isLoading.postValue(false);
-            } catch (Exception e) {
-                android.util.Log.e("MainViewModel", "Error fetching product", e);
-                error.postValue("Fehler bei der Produktsuche: " + e.getMessage());
+
+        productCollector = new FlowCollector<>(
+            productRepository.getProduct(barcode),
+            result -> {
+                if (result.getData() != null) {
+                    product.postValue(result.getData());
+                    isLoading.postValue(false);
+                } else if (result.isError()) {
+                    error.postValue("Fehler bei der Produktsuche: " + result.getErrorMessage());
+                    isLoading.postValue(false);
+                }
+                // Success without data is the repository's initial loading state
+                return Unit.INSTANCE;
+            },
+            throwable -> {
+                android.util.Log.e("MainViewModel", "Error fetching product", throwable);
+                error.postValue("Fehler bei der Produktsuche: " + throwable.getMessage());
                 isLoading.postValue(false);
+                return Unit.INSTANCE;
             }
-        });
+        );
+        productCollector.start();
     }
 
     public void loadRecentScans() {
@@ -73,101 +101,32 @@ public class MainViewModel extends AndroidViewModel {
     }
 
     public void loadFavorites() {
-        // TODO: Load from database when repository is implemented
-        favorites.setValue(new ArrayList<>());
-    }
-
-    private Product fetchProductFromApi(String barcode) throws Exception {
-        // Temporary implementation - will be moved to repository later
-        String urlString = "https://world.openfoodfacts.org/api/v0/product/" + 
-                          java.net.URLEncoder.encode(barcode, java.nio.charset.StandardCharsets.UTF_8) + ".json";
-        
-        java.net.HttpURLConnection connection = null;
-        StringBuilder builder = new StringBuilder();
-        
-        try {
-            java.net.URL url = new java.net.URL(urlString);
-            connection = (java.net.HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(8000);
-            connection.setReadTimeout(8000);
-
-            int status = connection.getResponseCode();
-            java.io.InputStream rawStream = (status >= 200 && status < 300)
-                    ? connection.getInputStream()
-                    : connection.getErrorStream();
-            if (rawStream == null) {
-                rawStream = java.io.InputStream.nullInputStream();
-            }
-            
-            try (java.io.InputStream stream = rawStream;
-                 java.io.BufferedReader reader = new java.io.BufferedReader(
-                         new java.io.InputStreamReader(stream, java.nio.charset.StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    builder.append(line);
-                }
-            }
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
+        if (favoritesCollector != null) {
+            // Already observing; the list updates with every favorite change
+            return;
         }
-
-        org.json.JSONObject root = new org.json.JSONObject(builder.toString());
-        int status = root.optInt("status", 0);
-        if (status != 1) {
-            String err = root.optString("status_verbose", "Produkt nicht gefunden");
-            throw new Exception("OFF lookup failed: " + err);
-        }
-
-        org.json.JSONObject productJson = root.getJSONObject("product");
-        String name = productJson.optString("product_name", "");
-        String brand = productJson.optString("brands", "");
-        String quantity = productJson.optString("quantity", "");
-        String categoriesStr = productJson.optString("categories", "");
-        String packaging = productJson.optString("packaging", productJson.optString("packaging_tags", ""));
-        String generic = productJson.optString("generic_name", "");
-        String labels = productJson.optString("labels", "");
-        String imageUrl = productJson.optString("image_url", "");
-        String ecoGrade = productJson.optString("ecoscore_grade", "");
-        int ecoScoreRaw = productJson.optInt("ecoscore_score", -1);
-        Integer ecoScore = ecoScoreRaw >= 0 ? ecoScoreRaw : null;
-
-        List<String> categories = new ArrayList<>();
-        if (!categoriesStr.isEmpty()) {
-            String[] catArray = categoriesStr.split(",");
-            for (String cat : catArray) {
-                if (!cat.trim().isEmpty()) {
-                    categories.add(cat.trim());
-                }
+        favoritesCollector = new FlowCollector<>(
+            getFavoritesUseCase.execute(),
+            products -> {
+                favorites.setValue(products);
+                return Unit.INSTANCE;
+            },
+            throwable -> {
+                android.util.Log.e("MainViewModel", "Error loading favorites", throwable);
+                return Unit.INSTANCE;
             }
-        }
-
-        List<String> ingredients = new ArrayList<>();
-        org.json.JSONArray ingredientsArray = productJson.optJSONArray("ingredients");
-        if (ingredientsArray != null) {
-            for (int i = 0; i < ingredientsArray.length(); i++) {
-                org.json.JSONObject ing = ingredientsArray.optJSONObject(i);
-                if (ing != null) {
-                    String text = ing.optString("text", "");
-                    if (!text.isEmpty()) {
-                        ingredients.add(text);
-                    }
-                }
-            }
-        }
-
-        Product product = new Product(barcode, name, brand, categories, packaging,
-                                     quantity, ingredients, labels, generic, imageUrl,
-                                     ecoGrade, ecoScore);
-        product.setId(barcode);
-        return product;
+        );
+        favoritesCollector.start();
     }
 
     @Override
     protected void onCleared() {
         super.onCleared();
-        networkExecutor.shutdownNow();
+        if (productCollector != null) {
+            productCollector.cancel();
+        }
+        if (favoritesCollector != null) {
+            favoritesCollector.cancel();
+        }
     }
 }
@@ -1,29 +1,37 @@
 package com.example.binbuddy.ui.viewmodel;
 
-import android.app.Application;
-
-import androidx.annotation.NonNull;
-import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
 
 import com.example.binbuddy.domain.model.Product;
-import com.example.binbuddy.domain.model.EnvironmentInfo;
+import com.example.binbuddy.domain.model.Result;
+import com.example.binbuddy.domain.repository.ProductRepository;
+import com.example.binbuddy.util.FlowCollector;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.lifecycle.HiltViewModel;
+import kotlin.Unit;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+/**
+ * ViewModel for the product detail screen.
+ * Loads the product (including EnvironmentInfo) through ProductRepository, so the memory cache,
+ * Room cache and HTTP cache are used before any network call.
+ */
+@HiltViewModel
+public class ProductDetailViewModel extends ViewModel {
+
+    private final ProductRepository productRepository;
+    private FlowCollector<Result<Product>> currentCollector;
 
-public class ProductDetailViewModel extends AndroidViewModel {
-    private final ExecutorService networkExecutor = Executors.newSingleThreadExecutor();
-    
     private final MutableLiveData<Product> product = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>();
 
-    public ProductDetailViewModel(@NonNull Application application) {
-        super(application);
+    @Inject
+    public ProductDetailViewModel(ProductRepository productRepository) {
+        this.productRepository = productRepository;
     }
 
     public LiveData<Product> getProduct() {
@@ -39,209 +47,56 @@ public class ProductDetailViewModel extends AndroidViewModel {
     }
 
     public void loadProduct(String barcode) {
-        isLoading.setValue(true);
-        error.setValue(null);
-        
-        networkExecutor.execute(() -> {
-            try {
-                Product fetchedProduct = fetchProductFromApi(barcode);
-                product.postValue(fetchedProduct);
-                isLoading.postValue(false);
-            } catch (Exception e) {
-                android.util.Log.e("ProductDetailViewModel", "Error fetching product", e);
-                error.postValue("Fehler bei der Produktsuche: " + e.getMessage());
-                isLoading.postValue(false);
-            }
-        });
-    }
-
-    private Product fetchProductFromApi(String barcode) throws Exception {
-        String urlString = "https://world.openfoodfacts.org/api/v0/product/" + 
-                          java.net.URLEncoder.encode(barcode, java.nio.charset.StandardCharsets.UTF_8) + ".json";
-        
-        java.net.HttpURLConnection connection = null;
-        StringBuilder builder = new StringBuilder();
-        
-        try {
-            java.net.URL url = new java.net.URL(urlString);
-            connection = (java.net.HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(8000);
-            connection.setReadTimeout(8000);
-
-            int status = connection.getResponseCode();
-            java.io.InputStream rawStream = (status >= 200 && status < 300)
-                    ? connection.getInputStream()
-                    : connection.getErrorStream();
-            if (rawStream == null) {
-                rawStream = java.io.InputStream.nullInputStream();
-            }
-            
-            try (java.io.InputStream stream = rawStream;
-                 java.io.BufferedReader reader = new java.io.BufferedReader(
-                         new java.io.InputStreamReader(stream, java.nio.charset.StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    builder.append(line);
-                }
-            }
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
-        }
-
-        org.json.JSONObject root = new org.json.JSONObject(builder.toString());
-        int status = root.optInt("status", 0);
-        if (status != 1) {
-            String err = root.optString("status_verbose", "Produkt nicht gefunden");
-            throw new Exception("OFF lookup failed: " + err);
+        if (currentCollector != null) {
+            currentCollector.cancel();
         }
 
-        org.json.JSONObject productJson = root.getJSONObject("product");
-        String name = productJson.optString("product_name", "");
-        String brand = productJson.optString("brands", "");
-        String quantity = productJson.optString("quantity", "");
-        String categoriesStr = productJson.optString("categories", "");
-        String packaging = productJson.optString("packaging", productJson.optString("packaging_tags", ""));
-        String generic = productJson.optString("generic_name", "");
-        String labels = productJson.optString("labels", "");
-        String imageUrl = productJson.optString("image_url", "");
-
-        List<String> categories = new ArrayList<>();
-        if (!categoriesStr.isEmpty()) {
-            String[] catArray = categoriesStr.split(",");
-            for (String cat : catArray) {
-                if (!cat.trim().isEmpty()) {
-                    categories.add(cat.trim());
-                }
-            }
-        }
+        isLoading.setValue(true);
+        error.setValue(null);
 
-        List<String> ingredients = new ArrayList<>();
-        org.json.JSONArray ingredientsArray = productJson.optJSONArray("ingredients");
-        if (ingredientsArray != null) {
-            for (int i = 0; i < ingredientsArray.length(); i++) {
-                org.json.JSONObject ing = ingredientsArray.optJSONObject(i);
-                if (ing != null) {
-                    String text = ing.optString("text", "");
-                    if (!text.isEmpty()) {
-                        ingredients.add(text);
-                    }
-                }
+        currentCollector = new FlowCollector<>(
+            productRepository.getProduct(barcode),
+            result -> {
+                handleProductResult(result);
+                return Unit.INSTANCE;
+            },
+            throwable -> {
+                android.util.Log.e("ProductDetailViewModel", "Error collecting product flow", throwable);
+                isLoading.postValue(false);
+                error.postValue("Fehler bei der Produktsuche: " + throwable.getMessage());
+                return Unit.INSTANCE;
             }
-        }
-
-        String ecoGrade = productJson.optString("ecoscore_grade", "");
-        int ecoScoreRaw = productJson.optInt("ecoscore_score", -1);
-        Integer ecoScore = ecoScoreRaw >= 0 ? ecoScoreRaw : null;
-
-        Product product = new Product(barcode, name, brand, categories, packaging,
-                                     quantity, ingredients, labels, generic, imageUrl,
-                                     ecoGrade, ecoScore);
-        product.setId(barcode);
-        product.setEnvironmentInfo(parseEnvironmentInfo(productJson));
-        return product;
+        );
+        currentCollector.start();
     }
 
-    private EnvironmentInfo parseEnvironmentInfo(org.json.JSONObject productJson) {
-        EnvironmentInfo info = new EnvironmentInfo();
-
-        String ecoScoreGrade = productJson.optString("ecoscore_grade", null);
-        if (ecoScoreGrade != null && ecoScoreGrade.trim().isEmpty()) {
-            ecoScoreGrade = null;
-        }
-        info.setEcoScoreGrade(ecoScoreGrade);
-        if (productJson.has("ecoscore_score")) {
-            int ecoScoreValue = productJson.optInt("ecoscore_score", -1);
-            if (ecoScoreValue >= 0) {
-                info.setEcoScoreScore(ecoScoreValue);
+    private void handleProductResult(Result<Product> result) {
+        Product data = result.getData();
+        if (data != null) {
+            // Cached or fresh data; a later emission may replace it after revalidation
+            product.postValue(data);
+            isLoading.postValue(false);
+            if (result.getError() != null) {
+                // Cached data shown with an offline / network warning
+                android.util.Log.i("ProductDetailViewModel", result.getErrorMessage());
             }
+            return;
         }
 
-        org.json.JSONObject ecoscoreData = productJson.optJSONObject("ecoscore_data");
-        if (ecoscoreData != null) {
-            org.json.JSONObject agribalyse = ecoscoreData.optJSONObject("agribalyse");
-            if (agribalyse != null && agribalyse.has("co2_total")) {
-                double co2 = agribalyse.optDouble("co2_total", Double.NaN);
-                if (!Double.isNaN(co2)) {
-                    info.setCo2Per100g(co2);
-                }
-            }
-
-            org.json.JSONObject adjustments = ecoscoreData.optJSONObject("adjustments");
-            if (adjustments != null) {
-                org.json.JSONObject packagingAdj = adjustments.optJSONObject("packaging");
-                if (packagingAdj != null) {
-                    info.setPackagingWarning(packagingAdj.optString("warning", null));
-                }
-                org.json.JSONObject threatened = adjustments.optJSONObject("threatened_species");
-                if (threatened != null) {
-                    info.setThreatenedSpeciesIngredient(threatened.optString("ingredient", null));
-                }
-            }
+        if (result.isSuccess()) {
+            // Initial loading state of the repository flow
+            return;
         }
 
-        org.json.JSONArray packagingMaterials = productJson.optJSONArray("packaging_materials_tags");
-        if (packagingMaterials != null) {
-            for (int i = 0; i < packagingMaterials.length(); i++) {
-                String mat = packagingMaterials.optString(i, "");
-                if (!mat.isEmpty()) {
-                    info.getPackagingMaterials().add(mat.replace("en:", "").replace('-', ' '));
-                }
-            }
-        }
-
-        org.json.JSONArray packagingParts = productJson.optJSONArray("packagings");
-        if (packagingParts != null) {
-            for (int i = 0; i < packagingParts.length(); i++) {
-                org.json.JSONObject part = packagingParts.optJSONObject(i);
-                if (part == null) continue;
-                String material = part.optString("material", part.optString("material_name", ""));
-                String shape = part.optString("shape", part.optString("shape_name", ""));
-                String weight = part.has("weight") ? part.optString("weight") : "";
-
-                StringBuilder builder = new StringBuilder();
-                if (!shape.isEmpty()) {
-                    builder.append(shape);
-                }
-                if (!material.isEmpty()) {
-                    if (builder.length() > 0) builder.append(" · ");
-                    builder.append(material);
-                }
-                if (!weight.isEmpty()) {
-                    if (builder.length() > 0) builder.append(" · ");
-                    builder.append(weight);
-                }
-                String assembled = builder.toString().trim();
-                if (!assembled.isEmpty()) {
-                    info.getPackagingParts().add(assembled);
-                }
-            }
-        }
-
-        org.json.JSONArray analysisTags = productJson.optJSONArray("ingredients_analysis_tags");
-        if (analysisTags != null) {
-            for (int i = 0; i < analysisTags.length(); i++) {
-                String tag = analysisTags.optString(i, "");
-                if ("en:palm-oil".equalsIgnoreCase(tag)) {
-                    info.setContainsPalmOil(true);
-                    break;
-                }
-            }
-        }
-
-        if (info.getThreatenedSpeciesIngredient() != null
-                && info.getThreatenedSpeciesIngredient().toLowerCase(java.util.Locale.ROOT).contains("palm")) {
-            info.setContainsPalmOil(true);
-        }
-
-        return info;
+        isLoading.postValue(false);
+        error.postValue("Fehler bei der Produktsuche: " + result.getErrorMessage());
     }
 
     @Override
     protected void onCleared() {
         super.onCleared();
-        networkExecutor.shutdownNow();
+        if (currentCollector != null) {
+            currentCollector.cancel();
+        }
     }
 }
@@ -1,26 +1,51 @@
 package com.example.binbuddy.ui.viewmodel;
 
-import android.app.Application;
-
-import androidx.annotation.NonNull;
-import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
 
-import com.example.binbuddy.domain.model.Product;
+import com.example.binbuddy.domain.model.ScanHistory;
+import com.example.binbuddy.domain.usecase.DeleteScanHistoryUseCase;
+import com.example.binbuddy.domain.usecase.GetScanHistoryUseCase;
+import com.example.binbuddy.util.FlowCollector;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.lifecycle.HiltViewModel;
+import kotlin.Unit;
+
+/**
+ * ViewModel for the scan history screen.
+ * Observes the paged scan history (GetScanHistoryUseCase); the list updates by itself when scans
+ * are added or deleted and grows with {@link #loadMore()}.
+ */
+@HiltViewModel
+public class ScanHistoryViewModel extends ViewModel {
 
-public class ScanHistoryViewModel extends AndroidViewModel {
-    private final MutableLiveData<List<Product>> scanHistory = new MutableLiveData<>(new ArrayList<>());
+    private final GetScanHistoryUseCase getScanHistoryUseCase;
+    private final DeleteScanHistoryUseCase deleteScanHistoryUseCase;
+    private FlowCollector<List<ScanHistory>> historyCollector;
+
+    private final MutableLiveData<List<ScanHistory>> scanHistory = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
 
-    public ScanHistoryViewModel(@NonNull Application application) {
-        super(application);
+    // Scans swiped away whose deletion can still be undone; kept out of the list meanwhile
+    private final Set<Long> hiddenScanIds = new HashSet<>();
+    private List<ScanHistory> latestHistory = new ArrayList<>();
+
+    @Inject
+    public ScanHistoryViewModel(GetScanHistoryUseCase getScanHistoryUseCase,
+                                DeleteScanHistoryUseCase deleteScanHistoryUseCase) {
+        this.getScanHistoryUseCase = getScanHistoryUseCase;
+        this.deleteScanHistoryUseCase = deleteScanHistoryUseCase;
     }
 
-    public LiveData<List<Product>> getScanHistory() {
+    public LiveData<List<ScanHistory>> getScanHistory() {
         return scanHistory;
     }
 
@@ -28,18 +53,103 @@ public class ScanHistoryViewModel extends AndroidViewModel {
         return isLoading;
     }
 
+    /**
+     * Start observing the history. Later calls keep the running observation.
+     */
     public void loadHistory() {
+        if (historyCollector != null) {
+            return;
+        }
         isLoading.setValue(true);
-        // TODO: Load from database when repository is implemented
-        scanHistory.setValue(new ArrayList<>());
-        isLoading.setValue(false);
+        historyCollector = new FlowCollector<>(
+            getScanHistoryUseCase.execute(),
+            history -> {
+                latestHistory = history;
+                pruneHiddenScanIds();
+                publishHistory();
+                isLoading.setValue(false);
+                return Unit.INSTANCE;
+            },
+            throwable -> {
+                android.util.Log.e("ScanHistoryViewModel", "Error collecting scan history", throwable);
+                isLoading.setValue(false);
+                return Unit.INSTANCE;
+            }
+        );
+        historyCollector.start();
+    }
+
+    /**
+     * Load the next page of older scans, e.g. when the list is scrolled near its end.
+     */
+    public void loadMore() {
+        getScanHistoryUseCase.loadMore();
+    }
+
+    /**
+     * Hide a scan from the list until it is deleted or restored.
+     * A scan still hidden when the ViewModel is cleared (e.g. the screen closed while the undo
+     * snackbar was showing) is deleted then.
+     */
+    public void hideScan(long id) {
+        hiddenScanIds.add(id);
+        publishHistory();
+    }
+
+    /**
+     * Show a hidden scan again (undo).
+     */
+    public void restoreScan(long id) {
+        if (hiddenScanIds.remove(id)) {
+            publishHistory();
+        }
     }
 
     public void deleteScan(long id) {
-        // TODO: Delete from database when repository is implemented
-        List<Product> current = scanHistory.getValue();
-        if (current != null) {
-            scanHistory.setValue(new ArrayList<>(current));
+        deleteScanHistoryUseCase.execute(id);
+        // The deleted row disappears from the next emission; keep it hidden until then
+        hiddenScanIds.add(id);
+        publishHistory();
+    }
+
+    /**
+     * Forget hidden scans that are no longer in the history, i.e. whose deletion has landed.
+     */
+    private void pruneHiddenScanIds() {
+        if (hiddenScanIds.isEmpty()) {
+            return;
+        }
+        Set<Long> present = new HashSet<>(latestHistory.size());
+        for (ScanHistory scan : latestHistory) {
+            present.add(scan.getId());
+        }
+        hiddenScanIds.retainAll(present);
+    }
+
+    private void publishHistory() {
+        if (hiddenScanIds.isEmpty()) {
+            scanHistory.setValue(latestHistory);
+            return;
+        }
+        List<ScanHistory> visible = new ArrayList<>(latestHistory.size());
+        for (ScanHistory scan : latestHistory) {
+            if (scan.getId() == null || !hiddenScanIds.contains(scan.getId())) {
+                visible.add(scan);
+            }
+        }
+        scanHistory.setValue(visible);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        // Swiped scans whose undo snackbar never got dismissed; ids already deleted are no-ops
+        for (Long id : hiddenScanIds) {
+            deleteScanHistoryUseCase.execute(id);
+        }
+        hiddenScanIds.clear();
+        if (historyCollector != null) {
+            historyCollector.cancel();
         }
     }
 }
@@ -2,18 +2,42 @@ package com.example.binbuddy.ui.viewmodel;
 
 import android.app.Application;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.binbuddy.domain.repository.ProductRepository;
+import com.example.binbuddy.domain.usecase.SaveScanHistoryUseCase;
+import com.example.binbuddy.ui.scanner.ScanGate;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.lifecycle.HiltViewModel;
+
+/**
+ * ViewModel for the scan screens.
+ * The scanning state itself lives in the ScanGate shared with the camera analyzer; the LiveData
+ * here only mirror it for the UI and are written on the main thread.
+ */
+@HiltViewModel
 public class ScannerViewModel extends AndroidViewModel {
+    private final ProductRepository productRepository;
+    private final ScanGate scanGate;
+    private final SaveScanHistoryUseCase saveScanHistoryUseCase;
     private final MutableLiveData<Boolean> isScanning = new MutableLiveData<>(true);
     private final MutableLiveData<String> scanResult = new MutableLiveData<>();
     private final MutableLiveData<String> error = new MutableLiveData<>();
 
-    public ScannerViewModel(@NonNull Application application) {
+    @Inject
+    public ScannerViewModel(@NonNull Application application, ProductRepository productRepository,
+                            ScanGate scanGate, SaveScanHistoryUseCase saveScanHistoryUseCase) {
         super(application);
+        this.productRepository = productRepository;
+        this.scanGate = scanGate;
+        this.saveScanHistoryUseCase = saveScanHistoryUseCase;
+        scanGate.start();
     }
 
     public LiveData<Boolean> getIsScanning() {
@@ -28,24 +52,43 @@ public class ScannerViewModel extends AndroidViewModel {
         return error;
     }
 
+    @MainThread
     public void startScanning() {
+        scanGate.start();
         isScanning.setValue(true);
         scanResult.setValue(null);
     }
 
+    @MainThread
     public void stopScanning() {
+        scanGate.stop();
         isScanning.setValue(false);
     }
 
+    @MainThread
     public void processBarcode(String barcode) {
         if (barcode != null && !barcode.isEmpty()) {
-            stopScanning();
+            // Camera scans arrive already accepted; manual entries take over the gate as well
+            scanGate.markAccepted();
+            isScanning.setValue(false);
+            prefetchProduct(barcode);
+            // Buffered; the history relates the scan to its product by barcode once cached
+            saveScanHistoryUseCase.execute(barcode, null, null);
             scanResult.setValue(barcode);
         } else {
             error.setValue("Ungültiger Barcode");
         }
     }
 
+    /**
+     * Start the product lookup as soon as a barcode is accepted, while the scanner still shows
+     * its confirmation. The repository runs the lookup on its own executor and shares it with
+     * later callers, so the detail screen joins the in-flight request or hits the memory cache.
+     */
+    private void prefetchProduct(String barcode) {
+        productRepository.getProduct(barcode);
+    }
+
     public void clearError() {
         error.setValue(null);
     }
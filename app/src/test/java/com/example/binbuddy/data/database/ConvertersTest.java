@@ -0,0 +1,74 @@
+package com.example.binbuddy.data.database;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the delimited List<String> encoding in Converters.
+ */
+public class ConvertersTest {
+
+    @Test
+    public void nullAndEmptyListsEncodeToEmptyString() {
+        assertEquals("", Converters.fromList(null));
+        assertEquals("", Converters.fromList(Collections.emptyList()));
+        assertEquals(Collections.emptyList(), Converters.fromString(null));
+        assertEquals(Collections.emptyList(), Converters.fromString(""));
+    }
+
+    @Test
+    public void plainItemsRoundTrip() {
+        assertRoundTrip(Arrays.asList("en:plastic-bottle", "en:cardboard", "Glas"));
+        assertRoundTrip(Collections.singletonList("single"));
+        assertRoundTrip(Arrays.asList("", "middle", ""));
+    }
+
+    @Test
+    public void nullItemsDecodeAsEmptyStrings() {
+        String encoded = Converters.fromList(Arrays.asList("a", null, "c"));
+        assertEquals(Arrays.asList("a", "", "c"), Converters.fromString(encoded));
+    }
+
+    @Test
+    public void controlCharactersAndBackslashRoundTrip() {
+        assertRoundTrip(Arrays.asList("a\u001Fb", "c"));
+        assertRoundTrip(Arrays.asList("\u001Eleading header", "in\u001Ethe middle"));
+        assertRoundTrip(Arrays.asList("back\\slash", "trailing\\", "\\"));
+        assertRoundTrip(Arrays.asList("\\\u001F", "\u001F\\\u001E", "\u001F"));
+    }
+
+    @Test
+    public void encodedValueStartsWithHeader() {
+        String encoded = Converters.fromList(Arrays.asList("a", "b"));
+        assertEquals(Converters.LIST_HEADER, encoded.charAt(0));
+        assertEquals("\u001Ea\u001Fb", encoded);
+    }
+
+    @Test
+    public void legacyJsonRowsAreRead() {
+        assertEquals(Collections.emptyList(), Converters.fromString("[]"));
+        assertEquals(Arrays.asList("en:milk", "en:dairy"),
+                Converters.fromString("[\"en:milk\",\"en:dairy\"]"));
+        assertEquals(Arrays.asList("quote \" and \\ backslash", "ü"),
+                Converters.fromString("[\"quote \\\" and \\\\ backslash\",\"\\u00fc\"]"));
+
+        List<String> original = Arrays.asList("Kunststoff", "a\u001Fb", "Glas");
+        assertEquals(original, Converters.fromString(new Gson().toJson(original)));
+    }
+
+    @Test
+    public void unknownFormatIsKeptAsSingleItem() {
+        assertEquals(Collections.singletonList("plain text"), Converters.fromString("plain text"));
+    }
+
+    private static void assertRoundTrip(List<String> list) {
+        assertEquals(list, Converters.fromString(Converters.fromList(list)));
+    }
+}
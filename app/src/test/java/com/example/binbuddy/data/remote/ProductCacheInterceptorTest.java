@@ -0,0 +1,148 @@
+package com.example.binbuddy.data.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * ProductCacheInterceptor on a client wired like NetworkModule's: network interceptor plus
+ * disk cache, against a MockWebServer.
+ */
+public class ProductCacheInterceptorTest {
+
+    private static final String PRODUCT_PATH = "/api/v0/product/4006381333931.json";
+    private static final String HIT_BODY =
+            "{\"code\":\"4006381333931\",\"product\":{\"product_name\":\"Milch\"},\"status\":1}";
+    private static final String MISS_BODY =
+            "{\"code\":\"4006381333931\",\"status\":0,\"status_verbose\":\"product not found\"}";
+    private static final String CACHE_CONTROL =
+            "public, max-age=" + ProductCacheInterceptor.DEFAULT_MAX_AGE_SECONDS;
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir.getRoot(), 1024 * 1024))
+                .addNetworkInterceptor(new ProductCacheInterceptor())
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        client.cache().close();
+    }
+
+    @Test
+    public void gzipProductHitIsCached() throws IOException {
+        server.enqueue(gzipResponse(HIT_BODY));
+
+        try (Response response = get(PRODUCT_PATH)) {
+            // Decompressed for the caller by BridgeInterceptor
+            assertEquals(HIT_BODY, response.body().string());
+            assertEquals(CACHE_CONTROL, response.networkResponse().header("Cache-Control"));
+        }
+        try (Response response = get(PRODUCT_PATH)) {
+            assertEquals(HIT_BODY, response.body().string());
+            assertNotNull(response.cacheResponse());
+            assertNull(response.networkResponse());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void plainProductHitIsCached() throws IOException {
+        server.enqueue(new MockResponse().setBody(HIT_BODY));
+
+        try (Response response = get(PRODUCT_PATH)) {
+            assertEquals(HIT_BODY, response.body().string());
+            assertEquals(CACHE_CONTROL, response.networkResponse().header("Cache-Control"));
+        }
+        try (Response response = get(PRODUCT_PATH)) {
+            assertNotNull(response.cacheResponse());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void statusAfterLargeProductIsFound() throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            name.append("Milch ");
+        }
+        String body = "{\"product\":{\"product_name\":\"" + name + "\"},\"status\":1}";
+        server.enqueue(gzipResponse(body));
+
+        try (Response response = get(PRODUCT_PATH)) {
+            assertEquals(body, response.body().string());
+            assertEquals(CACHE_CONTROL, response.networkResponse().header("Cache-Control"));
+        }
+    }
+
+    @Test
+    public void productMissIsNotCached() throws IOException {
+        server.enqueue(gzipResponse(MISS_BODY));
+        server.enqueue(gzipResponse(MISS_BODY));
+
+        try (Response response = get(PRODUCT_PATH)) {
+            assertEquals(MISS_BODY, response.body().string());
+            assertNull(response.networkResponse().header("Cache-Control"));
+        }
+        try (Response response = get(PRODUCT_PATH)) {
+            assertEquals(MISS_BODY, response.body().string());
+            assertNotNull(response.networkResponse());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void searchResponsesAreLeftUntouched() throws IOException {
+        server.enqueue(gzipResponse(HIT_BODY));
+
+        try (Response response = get("/cgi/search.pl?search_terms=milch&json=1")) {
+            assertEquals(HIT_BODY, response.body().string());
+            assertNull(response.networkResponse().header("Cache-Control"));
+        }
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+
+    private static MockResponse gzipResponse(String json) throws IOException {
+        Buffer gzipped = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+            sink.writeUtf8(json);
+        }
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(gzipped);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.binbuddy.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for FtsQueryBuilder.
+ */
+public class FtsQueryBuilderTest {
+
+    @Test
+    public void nullAndEmptyInputHaveNoQuery() {
+        assertNull(FtsQueryBuilder.buildPrefixQuery(null));
+        assertNull(FtsQueryBuilder.buildPrefixQuery(""));
+        assertNull(FtsQueryBuilder.buildPrefixQuery("   "));
+    }
+
+    @Test
+    public void inputWithoutLettersOrDigitsHasNoQuery() {
+        assertNull(FtsQueryBuilder.buildPrefixQuery("*"));
+        assertNull(FtsQueryBuilder.buildPrefixQuery("\"-()^:"));
+        assertNull(FtsQueryBuilder.buildPrefixQuery(" - "));
+    }
+
+    @Test
+    public void singleTokenBecomesPrefixTerm() {
+        assertEquals("milch*", FtsQueryBuilder.buildPrefixQuery("milch"));
+        assertEquals("milch*", FtsQueryBuilder.buildPrefixQuery("  milch  "));
+    }
+
+    @Test
+    public void multipleTokensAreSeparatedBySingleSpaces() {
+        assertEquals("bio* milch*", FtsQueryBuilder.buildPrefixQuery("bio milch"));
+        assertEquals("bio* milch* 1*", FtsQueryBuilder.buildPrefixQuery("  bio \t milch   1 "));
+    }
+
+    @Test
+    public void punctuationSplitsTokens() {
+        assertEquals("coca* cola*", FtsQueryBuilder.buildPrefixQuery("coca-cola"));
+        assertEquals("Ben* Jerry* s*", FtsQueryBuilder.buildPrefixQuery("Ben & Jerry's"));
+        assertEquals("1* 5l*", FtsQueryBuilder.buildPrefixQuery("1,5l"));
+    }
+
+    @Test
+    public void ftsOperatorsAreDropped() {
+        assertEquals("milch* kase*", FtsQueryBuilder.buildPrefixQuery("\"milch\" -kase*"));
+        assertEquals("name* milch*", FtsQueryBuilder.buildPrefixQuery("name:milch"));
+    }
+
+    @Test
+    public void nonAsciiLettersAndCaseAreKept() {
+        assertEquals("Käse* Müsli*", FtsQueryBuilder.buildPrefixQuery("Käse, Müsli"));
+    }
+
+    @Test
+    public void likeWildcardsAreEscaped() {
+        assertNull(FtsQueryBuilder.escapeLikePattern(null));
+        assertEquals("milch", FtsQueryBuilder.escapeLikePattern("milch"));
+        assertEquals("50\\% fett", FtsQueryBuilder.escapeLikePattern("50% fett"));
+        assertEquals("a\\_b\\\\c", FtsQueryBuilder.escapeLikePattern("a_b\\c"));
+        assertEquals("\\%\\%", FtsQueryBuilder.escapeLikePattern("%%"));
+    }
+}
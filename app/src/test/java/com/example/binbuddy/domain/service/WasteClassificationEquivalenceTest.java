@@ -0,0 +1,333 @@
+package com.example.binbuddy.domain.service;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.binbuddy.domain.model.Product;
+import com.example.binbuddy.domain.service.ClassificationRules.CategoryIds;
+import com.example.binbuddy.domain.service.ClassificationRules.Rules;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Checks that the KeywordMatcher based WasteClassificationService classifies exactly like the
+ * chained contains() checks it replaced (kept below as {@link LegacyClassifier}).
+ */
+public class WasteClassificationEquivalenceTest {
+
+    private final WasteClassificationService service = new WasteClassificationService();
+
+    @Test
+    public void pfandRules() {
+        assertGolden(CategoryIds.PFAND, product(null, "Einwegflasche mit Pfand", null));
+        assertGolden(CategoryIds.PFAND, product(null, null, "Deposit"));
+        // Overlapping: "dosenpfand" also contains the Gelbe Tonne keyword "dose"
+        assertGolden(CategoryIds.PFAND, product(null, "Dosenpfand", null));
+        assertGolden(CategoryIds.PFAND, product("4001234567890", null, null, "Getränke"));
+        assertGolden(CategoryIds.PFAND, product("4029764001807", null, null, "Soft drinks"));
+        // Prefix outside 400-402, or no beverage category
+        assertGolden(CategoryIds.RESTMUELL, product("4031234567890", null, null, "Getränke"));
+        assertGolden(CategoryIds.RESTMUELL, product("4001234567890", null, null, "Snacks"));
+        assertGolden(CategoryIds.RESTMUELL, product("40", null, null, "Getränke"));
+    }
+
+    @Test
+    public void packagingRules() {
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "Kunststoff", null));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "PE-Folie", null));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "Metalldose", null));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "Tetra Pak", null));
+        assertGolden(CategoryIds.GLAS, product(null, "Glasflasche", null));
+        assertGolden(CategoryIds.GLAS, product(null, "glass jar", null));
+        assertGolden(CategoryIds.PAPIER, product(null, "Karton", null));
+        assertGolden(CategoryIds.PAPIER, product(null, "Papier", null));
+        assertGolden(CategoryIds.BIO, product(null, "kompostierbar", null));
+        assertGolden(CategoryIds.RESTMUELL, product(null, "Getränk", null));
+    }
+
+    @Test
+    public void kartonWithGetraenkIsGelbeTonne() {
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "Getränkekarton", null));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "Karton, Getränk", null));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "GETRÄNK im KARTON", null));
+        // Either keyword alone does not trigger the composite
+        assertGolden(CategoryIds.PAPIER, product(null, "Karton", "Getränk"));
+    }
+
+    @Test
+    public void overlappingKeywordsFollowRuleOrder() {
+        // "pappe" contains "pp" and "pe" of the Gelbe Tonne rule, which is checked first
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, "Pappe", null));
+        // "papier" contains neither
+        assertGolden(CategoryIds.PAPIER, product(null, "Papier", null));
+        // Glass is checked before paper and organic packaging
+        assertGolden(CategoryIds.GLAS, product(null, "Glas, Karton, bio", null));
+        // Packaging decides before labels
+        assertGolden(CategoryIds.GLAS, product(null, "Glas", "Bio"));
+        // "biologisch" contains "bio"
+        assertGolden(CategoryIds.BIO, product(null, null, "Biologisch"));
+    }
+
+    @Test
+    public void categoryAndLabelRules() {
+        assertGolden(CategoryIds.RESTMUELL, product(null, null, null, "Obst"));
+        assertGolden(CategoryIds.BIO, product(null, null, "Bio, EU-Öko"));
+        assertGolden(CategoryIds.BIO, product(null, null, "Organic"));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, null, "Recycelbar"));
+        assertGolden(CategoryIds.GELBE_TONNE, product(null, null, "recyclable"));
+        assertGolden(CategoryIds.RESTMUELL, product(null, null, "Fairtrade"));
+    }
+
+    @Test
+    public void emptyProducts() {
+        assertEquals(CategoryIds.RESTMUELL, service.determineWasteCategory((Product) null).getId());
+        assertGolden(CategoryIds.RESTMUELL, new Product());
+        assertGolden(CategoryIds.RESTMUELL, product("", "", ""));
+    }
+
+    @Test
+    public void overlappingKeywordsReportEveryRule() {
+        KeywordMatcher matcher = ClassificationRules.KEYWORD_MATCHER;
+        assertEquals(Rules.PFAND_MARKER | Rules.PACKAGING_YELLOW_BIN | Rules.DEPOSIT_PACKAGING,
+                matcher.matchRules("Pfanddose"));
+        assertEquals(Rules.BEVERAGE | Rules.DRINK_PACKAGING | Rules.KARTON | Rules.PACKAGING_PAPER,
+                matcher.matchRules("Getränkkarton"));
+        assertEquals(Rules.PACKAGING_ORGANIC | Rules.ORGANIC_CATEGORY | Rules.ORGANIC_LABEL,
+                matcher.matchRules("BIOLOGISCH"));
+        assertEquals(0, matcher.matchRules("Fairtrade"));
+        assertEquals(0, matcher.matchRules(null));
+    }
+
+    @Test
+    public void randomizedProductsClassifyLikeLegacy() {
+        String[] fragments = {
+                "pfand", "deposit", "getränk", "Getränke", "drink", "beverage", "karton", "plastic",
+                "Kunststoff", "PET", "pe", "pp", "ps", "pvc", "aluminium", "aluminum", "Metall",
+                "metal", "Dose", "can", "tetra", "glass", "Glas", "flasche", "paper", "Papier",
+                "cardboard", "pappe", "carton", "bio", "organic", "biologisch", "kompostierbar",
+                "compostable", "obst", "Gemüse", "fruit", "vegetable", "recycling", "recycelbar",
+                "recyclable", "Snacks", "Milch", "Joghurt", "x", "ä", "-", " ", ",", "en:"
+        };
+        String[] prefixes = {"399", "400", "401", "402", "403", "590", "0"};
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            String barcode = prefixes[random.nextInt(prefixes.length)] + random.nextInt(1_000_000);
+            Product product = product(barcode,
+                    randomText(random, fragments), randomText(random, fragments));
+            int categoryCount = random.nextInt(4);
+            List<String> categories = new ArrayList<>(categoryCount);
+            for (int c = 0; c < categoryCount; c++) {
+                categories.add(randomText(random, fragments));
+            }
+            product.setCategories(categories);
+
+            assertEquals(describe(product), LegacyClassifier.classify(product),
+                    service.determineWasteCategory(product).getId());
+        }
+    }
+
+    private void assertGolden(String expected, Product product) {
+        String description = describe(product);
+        assertEquals("Legacy: " + description, expected, LegacyClassifier.classify(product));
+        assertEquals("Current: " + description, expected,
+                service.determineWasteCategory(product).getId());
+    }
+
+    private static Product product(String barcode, String packaging, String labels,
+                                   String... categories) {
+        Product product = new Product();
+        product.setBarcode(barcode);
+        product.setPackaging(packaging);
+        product.setLabels(labels);
+        product.setCategories(categories.length == 0
+                ? Collections.emptyList() : Arrays.asList(categories));
+        return product;
+    }
+
+    private static String randomText(Random random, String[] fragments) {
+        int count = random.nextInt(4);
+        if (count == 0) {
+            return random.nextBoolean() ? null : "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String fragment = fragments[random.nextInt(fragments.length)];
+            builder.append(random.nextInt(5) == 0 ? fragment.toUpperCase(Locale.ROOT) : fragment);
+        }
+        return builder.toString();
+    }
+
+    private static String describe(Product product) {
+        return "barcode=" + product.getBarcode() + ", packaging=" + product.getPackaging()
+                + ", labels=" + product.getLabels() + ", categories=" + product.getCategories();
+    }
+
+    /**
+     * The classification as implemented before KeywordMatcher: every rule lowercases the fields
+     * and tests each keyword with contains(). Returns the category id.
+     */
+    private static final class LegacyClassifier {
+
+        static String classify(Product product) {
+            String pfand = checkPfand(product);
+            if (pfand != null) {
+                return pfand;
+            }
+            String packaging = checkPackaging(product);
+            if (packaging != null) {
+                return packaging;
+            }
+            String category = checkCategories(product);
+            if (category != null) {
+                return category;
+            }
+            String label = checkLabels(product);
+            if (label != null) {
+                return label;
+            }
+            return CategoryIds.RESTMUELL;
+        }
+
+        private static String checkPfand(Product product) {
+            String packaging = lower(product.getPackaging());
+            String labels = lower(product.getLabels());
+
+            if (packaging.contains("pfand")
+                    || packaging.contains("deposit")
+                    || labels.contains("pfand")
+                    || labels.contains("deposit")) {
+                return CategoryIds.PFAND;
+            }
+
+            String barcode = product.getBarcode();
+            if (barcode != null && barcode.length() >= 3) {
+                String prefix = barcode.substring(0, 3);
+                if (prefix.equals("400") || prefix.equals("401") || prefix.equals("402")) {
+                    List<String> categories = product.getCategories();
+                    if (categories != null) {
+                        for (String category : categories) {
+                            String catLower = lower(category);
+                            if (catLower.contains("getränk")
+                                    || catLower.contains("drink")
+                                    || catLower.contains("beverage")) {
+                                return CategoryIds.PFAND;
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static String checkPackaging(Product product) {
+            String packaging = lower(product.getPackaging());
+            if (packaging.isEmpty()) {
+                return null;
+            }
+
+            if (packaging.contains("plastic")
+                    || packaging.contains("kunststoff")
+                    || packaging.contains("pet")
+                    || packaging.contains("pe")
+                    || packaging.contains("pp")
+                    || packaging.contains("ps")
+                    || packaging.contains("pvc")
+                    || packaging.contains("aluminium")
+                    || packaging.contains("aluminum")
+                    || packaging.contains("metall")
+                    || packaging.contains("metal")
+                    || packaging.contains("dose")
+                    || packaging.contains("can")
+                    || packaging.contains("tetra")
+                    || packaging.contains("karton") && packaging.contains("getränk")) {
+                return CategoryIds.GELBE_TONNE;
+            }
+
+            if (packaging.contains("glass")
+                    || packaging.contains("glas")
+                    || packaging.contains("flasche") && packaging.contains("glas")) {
+                return CategoryIds.GLAS;
+            }
+
+            if (packaging.contains("paper")
+                    || packaging.contains("papier")
+                    || packaging.contains("cardboard")
+                    || packaging.contains("pappe")
+                    || packaging.contains("karton")
+                    || packaging.contains("carton")) {
+                return CategoryIds.PAPIER;
+            }
+
+            if (packaging.contains("bio")
+                    || packaging.contains("organic")
+                    || packaging.contains("biologisch")
+                    || packaging.contains("kompostierbar")
+                    || packaging.contains("compostable")) {
+                return CategoryIds.BIO;
+            }
+            return null;
+        }
+
+        private static String checkCategories(Product product) {
+            List<String> categories = product.getCategories();
+            if (categories == null || categories.isEmpty()) {
+                return null;
+            }
+
+            String packaging = lower(product.getPackaging());
+            for (String category : categories) {
+                String catLower = lower(category);
+
+                if (catLower.contains("bio")
+                        || catLower.contains("organic")
+                        || catLower.contains("obst")
+                        || catLower.contains("gemüse")
+                        || catLower.contains("fruit")
+                        || catLower.contains("vegetable")) {
+                    if (packaging.contains("bio") || packaging.contains("organic")) {
+                        return CategoryIds.BIO;
+                    }
+                }
+
+                if ((catLower.contains("getränk")
+                        || catLower.contains("drink")
+                        || catLower.contains("beverage"))
+                        && packaging.contains("glas")) {
+                    return CategoryIds.GLAS;
+                }
+            }
+            return null;
+        }
+
+        private static String checkLabels(Product product) {
+            String labels = lower(product.getLabels());
+            if (labels.isEmpty()) {
+                return null;
+            }
+
+            if (labels.contains("bio")
+                    || labels.contains("organic")
+                    || labels.contains("biologisch")) {
+                return CategoryIds.BIO;
+            }
+
+            if (labels.contains("recycling")
+                    || labels.contains("recycelbar")
+                    || labels.contains("recyclable")) {
+                return CategoryIds.GELBE_TONNE;
+            }
+            return null;
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase(Locale.getDefault()) : "";
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.binbuddy.ui.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.mlkit.vision.barcode.common.Barcode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for BarcodeConsensus: check digits, UPC-E expansion, multi-frame agreement and
+ * suppression of repeated scans.
+ */
+public class BarcodeConsensusTest {
+
+    private BarcodeConsensus consensus;
+
+    @Before
+    public void setUp() {
+        consensus = new BarcodeConsensus();
+    }
+
+    @Test
+    public void validGtinsPassChecksum() {
+        assertTrue(BarcodeConsensus.isValidGtin("4006381333931"));
+        assertTrue(BarcodeConsensus.isValidGtin("96385074"));
+        assertTrue(BarcodeConsensus.isValidGtin("036000291452"));
+    }
+
+    @Test
+    public void invalidGtinsFailChecksum() {
+        assertFalse(BarcodeConsensus.isValidGtin("4006381333932"));
+        assertFalse(BarcodeConsensus.isValidGtin("96385075"));
+        assertFalse(BarcodeConsensus.isValidGtin("036000291453"));
+        // Wrong length, non-digits, null
+        assertFalse(BarcodeConsensus.isValidGtin("400638133393"));
+        assertFalse(BarcodeConsensus.isValidGtin("400638133393A"));
+        assertFalse(BarcodeConsensus.isValidGtin(""));
+        assertFalse(BarcodeConsensus.isValidGtin(null));
+    }
+
+    @Test
+    public void upcEExpandsForEveryLastDigit() {
+        String[][] cases = {
+                {"01234505", "012000003455"},
+                {"01234514", "012100003454"},
+                {"01234523", "012200003453"},
+                {"01234531", "012300000451"},
+                {"01234543", "012340000053"},
+                {"01234558", "012345000058"},
+                {"01234565", "012345000065"},
+                {"01234572", "012345000072"},
+                {"01234589", "012345000089"},
+                {"01234596", "012345000096"},
+                {"04252614", "042100005264"},
+        };
+        for (String[] c : cases) {
+            String expanded = BarcodeConsensus.expandUpcE(c[0]);
+            assertEquals(c[0], c[1], expanded);
+            assertTrue(c[0], BarcodeConsensus.isValidGtin(expanded));
+        }
+    }
+
+    @Test
+    public void upcERejectsInvalidLayouts() {
+        assertNull(BarcodeConsensus.expandUpcE(null));
+        assertNull(BarcodeConsensus.expandUpcE("0123450"));
+        assertNull(BarcodeConsensus.expandUpcE("21234505"));
+        assertNull(BarcodeConsensus.expandUpcE("0123A505"));
+    }
+
+    @Test
+    public void checksumFormatsAreAcceptedOnFirstValidFrame() {
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 0L));
+        assertEquals("96385074", consensus.offer("96385074", Barcode.FORMAT_EAN_8, 10L));
+        assertEquals("036000291452", consensus.offer("036000291452", Barcode.FORMAT_UPC_A, 20L));
+        assertEquals("04252614", consensus.offer("04252614", Barcode.FORMAT_UPC_E, 30L));
+    }
+
+    @Test
+    public void checksumFormatsDropMisreads() {
+        for (int i = 0; i < 5; i++) {
+            assertNull(consensus.offer("4006381333932", Barcode.FORMAT_EAN_13, i * 10L));
+            assertNull(consensus.offer("96385075", Barcode.FORMAT_EAN_8, i * 10L));
+            assertNull(consensus.offer("036000291453", Barcode.FORMAT_UPC_A, i * 10L));
+            assertNull(consensus.offer("04252615", Barcode.FORMAT_UPC_E, i * 10L));
+        }
+    }
+
+    @Test
+    public void formatsWithoutChecksumNeedThreeOfFive() {
+        assertNull(consensus.offer("ABC-123", Barcode.FORMAT_CODE_128, 0L));
+        assertNull(consensus.offer("ABC-128", Barcode.FORMAT_CODE_128, 10L));
+        assertNull(consensus.offer("ABC-123", Barcode.FORMAT_CODE_128, 20L));
+        assertNull(consensus.offer("XYZ", Barcode.FORMAT_CODE_128, 30L));
+        assertEquals("ABC-123", consensus.offer("ABC-123", Barcode.FORMAT_CODE_128, 40L));
+    }
+
+    @Test
+    public void agreementOnlyCountsTheLastFiveFrames() {
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 0L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 10L));
+        for (int i = 0; i < 4; i++) {
+            assertNull(consensus.offer("NOISE" + i, Barcode.FORMAT_QR_CODE, 20L + i));
+        }
+        // Both earlier ABC decodes have left the window
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 30L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 40L));
+        assertEquals("ABC", consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 50L));
+    }
+
+    @Test
+    public void shortUpcEFallsBackToAgreement() {
+        assertNull(consensus.offer("425261", Barcode.FORMAT_UPC_E, 0L));
+        assertNull(consensus.offer("425261", Barcode.FORMAT_UPC_E, 10L));
+        assertEquals("425261", consensus.offer("425261", Barcode.FORMAT_UPC_E, 20L));
+    }
+
+    @Test
+    public void sameValueIsSuppressedForTwoSeconds() {
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 1000L));
+        assertNull(consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 1500L));
+        assertNull(consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 2999L));
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 3000L));
+    }
+
+    @Test
+    public void otherValuesAreNotSuppressed() {
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 0L));
+        assertEquals("96385074", consensus.offer("96385074", Barcode.FORMAT_EAN_8, 100L));
+    }
+
+    @Test
+    public void resetClearsSuppressionAndPendingDecodes() {
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 0L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 10L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 20L));
+        consensus.reset();
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 30L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 40L));
+    }
+
+    @Test
+    public void clearPendingKeepsSuppression() {
+        assertEquals("4006381333931", consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 0L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 10L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 20L));
+        consensus.clearPending();
+        assertNull(consensus.offer("4006381333931", Barcode.FORMAT_EAN_13, 30L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 40L));
+        assertNull(consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 50L));
+        assertEquals("ABC", consensus.offer("ABC", Barcode.FORMAT_QR_CODE, 60L));
+    }
+}